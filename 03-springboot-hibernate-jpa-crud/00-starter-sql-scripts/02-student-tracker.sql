@@ -11,7 +11,38 @@ CREATE TABLE `student` (
   `id` int NOT NULL AUTO_INCREMENT,
   `first_name`varchar(45) DEFAULT NULL,
   `last_name` varchar(45) DEFAULT NULL,
+  `last_name_lower` varchar(45) DEFAULT NULL,
   `email` varchar(45) DEFAULT NULL,
-  PRIMARY KEY (`id`)
+  PRIMARY KEY (`id`),
+  KEY `idx_student_last_name_id` (`last_name`,`id`),
+  KEY `idx_student_last_name_lower_id` (`last_name_lower`,`id`)
 ) ENGINE=InnoDB AUTO_INCREMENT=1 DEFAULT CHARSET=latin1;
 
+--
+-- Table backing the pooled student_seq generator (MySQL has no native sequences)
+--
+
+DROP TABLE IF EXISTS `student_seq`;
+
+CREATE TABLE `student_seq` (
+  `next_val` bigint DEFAULT NULL
+) ENGINE=InnoDB DEFAULT CHARSET=latin1;
+
+-- pooled optimizer: next_val is the top of the next block of 50 ids (allocationSize), so it has to start at
+-- MAX(id)+50, not MAX(id)+1, or the first block reuses ids that already exist. an empty table gives ids from 1
+INSERT INTO `student_seq` SELECT COALESCE(MAX(`id`),0)+50 FROM `student`;
+
+--
+-- Existing databases: case-insensitive last name search column, rows from before it existed are left NULL
+--
+-- ALTER TABLE `student` ADD COLUMN `last_name_lower` varchar(45) DEFAULT NULL;
+-- CREATE INDEX `idx_student_last_name_lower_id` ON `student` (`last_name_lower`,`id`);
+-- UPDATE `student` SET `last_name_lower` = LOWER(`last_name`) WHERE `last_name_lower` IS NULL AND `last_name` IS NOT NULL;
+
+--
+-- Existing databases: student ids moved from AUTO_INCREMENT to the pooled student_seq generator, seed it past
+-- the ids already taken (also repairs a student_seq that ddl-auto=update created with 1)
+--
+-- CREATE TABLE IF NOT EXISTS `student_seq` (`next_val` bigint DEFAULT NULL) ENGINE=InnoDB DEFAULT CHARSET=latin1;
+-- DELETE FROM `student_seq`;
+-- INSERT INTO `student_seq` SELECT COALESCE(MAX(`id`),0)+50 FROM `student`;
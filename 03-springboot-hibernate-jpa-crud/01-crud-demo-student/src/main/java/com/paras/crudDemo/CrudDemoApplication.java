@@ -1,14 +1,24 @@
 package com.paras.crudDemo;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.context.annotation.Bean;
 
 import com.paras.crudDemo.DAO.StudentDAO;
+import com.paras.crudDemo.DAO.StudentPage;
 import com.paras.crudDemo.Entity.Student;
+import com.paras.crudDemo.Job.PurgeProgress;
+import com.paras.crudDemo.Job.StudentPurgeJob;
+
+import jakarta.persistence.EntityManagerFactory;
 
 @SpringBootApplication
 public class CrudDemoApplication {
@@ -18,19 +28,34 @@ public class CrudDemoApplication {
 	}
 
 	@Bean
-	public CommandLineRunner commandLineRunner(StudentDAO studentDAO){
+	public CommandLineRunner commandLineRunner(StudentDAO studentDAO,StudentPurgeJob purgeJob,EntityManagerFactory entityManagerFactory){
 		return _ -> {
+			backfillLastNameLower(studentDAO);
 			createMultipleStudent(studentDAO);
+			// compareSaveThroughput(studentDAO,10000);
 			// readStudent(studentDAO);
 			// queryStudent(studentDAO);
+			// streamStudent(studentDAO);
 			// queryByLname(studentDAO);
+			// pageStudents(studentDAO,100);
 			// updateStudent(studentDAO);
 			// update(studentDAO);
+			// updateFields(studentDAO);
 			// dleteStudent(studentDAO);
 			// dleteAllStudent(studentDAO);
+			// purgeStudents(purgeJob);
+			// printCacheStats(entityManagerFactory);
 		};
 	}
 
+	// idempotent, a no-op once every row has its normalized last name
+	private void backfillLastNameLower(StudentDAO studentDAO) {
+		int numberOfUpdates=studentDAO.backfillLastNameLower();
+		if(numberOfUpdates>0){
+			System.out.println("Backfilled last_name_lower for "+numberOfUpdates+" students");
+		}
+	}
+
 	private void createStudent(StudentDAO studentDAO) {
 		System.out.println("Creating new Student object...");
 		Student tempStudent=new Student("Paras","singh","parascet@gmail.com");
@@ -57,10 +82,7 @@ public class CrudDemoApplication {
 		Student tempStudent4=new Student("Paras4","singh4","parascet4@gmail.com");
 
 		System.out.println("Saving the student DAO..");
-		studentDAO.save(tempStudent);
-		studentDAO.save(tempStudent2);
-		studentDAO.save(tempStudent3);
-		studentDAO.save(tempStudent4);
+		studentDAO.saveAll(List.of(tempStudent,tempStudent2,tempStudent3,tempStudent4));
 
 		System.out.println("Saved Student , generated id "+tempStudent.getId());
 		System.out.println("Saved Student , generated id "+tempStudent2.getId());
@@ -69,6 +91,32 @@ public class CrudDemoApplication {
 
 	}
 
+	private void compareSaveThroughput(StudentDAO studentDAO,int count){
+		System.out.println("Saving "+count+" students one by one...");
+		long start=System.nanoTime();
+		for(Student s: buildStudents("single",count)){
+			studentDAO.save(s);
+		}
+		long singleNanos=System.nanoTime()-start;
+
+		System.out.println("Saving "+count+" students with saveAll...");
+		List<Student>batch=buildStudents("batch",count);
+		start=System.nanoTime();
+		studentDAO.saveAll(batch);
+		long batchNanos=System.nanoTime()-start;
+
+		System.out.println("save()    rows/sec "+(count*1_000_000_000L/Math.max(singleNanos,1)));
+		System.out.println("saveAll() rows/sec "+(count*1_000_000_000L/Math.max(batchNanos,1)));
+	}
+
+	private List<Student> buildStudents(String prefix,int count){
+		List<Student>students=new ArrayList<>(count);
+		for(int i=0;i<count;i++){
+			students.add(new Student(prefix+i,"bulk",prefix+i+"@gmail.com"));
+		}
+		return students;
+	}
+
 	private void readStudent(StudentDAO studentDAO){
 		System.out.println("Creating read Student object...");
 		Student tempStudent=new Student("readStudent","read","read@gmail.com");
@@ -99,6 +147,14 @@ public class CrudDemoApplication {
 		}
 	}
 
+	private void streamStudent(StudentDAO studentDAO){
+		System.out.println("Streaming all the students ");
+
+		long count=studentDAO.streamAll(500,s -> System.out.println(s));
+
+		System.out.println("Streamed students count are "+count);
+	}
+
 	private void queryByLname(StudentDAO studentDAO){
 		System.out.println("Retiving all the students by last name ");
 		List<Student>studs=studentDAO.findByLastName("singh");
@@ -110,6 +166,21 @@ public class CrudDemoApplication {
 		}
 	}
 
+	private void pageStudents(StudentDAO studentDAO,int pageSize){
+		System.out.println("Paging all the students, page size "+pageSize);
+
+		String token=null;
+		int pageNumber=0;
+		do{
+			long start=System.nanoTime();
+			StudentPage page=studentDAO.findPageAfter(token,pageSize);
+			long micros=(System.nanoTime()-start)/1000;
+			pageNumber++;
+			System.out.println("Page "+pageNumber+" rows "+page.getStudents().size()+" took "+micros+"us");
+			token=page.getNextPageToken();
+		}while(token!=null);
+	}
+
 	// private void updateStudent(StudentDAO studentDAO){
 	// 	System.out.println("Updateing student");
 	// 	Student updatedStud=studentDAO.updateStudent("read@gmail.com", "updatedmail@gmai.com");
@@ -126,11 +197,19 @@ public class CrudDemoApplication {
 		System.out.println("Updated student "+myStudent);
 	}
 
+	private void updateFields(StudentDAO studentDAO){
+		int studentID=1;
+		System.out.println("Updating first name of student with id: "+studentID);
+		int numb=studentDAO.updateFields(studentID,Map.of("firstName","Sobbyy"));
+		System.out.println("Updated students count are "+numb);
+	}
+
 	private void dleteStudent(StudentDAO studentDAO){
 		int studentID=2;
 		System.out.println("Deleting the student with id "+studentID);
 
-		studentDAO.dlete(studentID);
+		boolean deleted=studentDAO.dlete(studentID);
+		System.out.println(deleted ? "Deleted student "+studentID : "No student with id "+studentID);
 	}	
 
     private void dleteAllStudent(StudentDAO studentDAO) {
@@ -139,4 +218,30 @@ public class CrudDemoApplication {
 		System.out.println("Deleted students count are "+numb);
     }
 
+	private void purgeStudents(StudentPurgeJob purgeJob){
+		System.out.println("Purging all the students in chunks");
+		PurgeProgress progress=purgeJob.purge(p -> System.out.println(p));
+		System.out.println("Purged students count are "+progress.getRowsDeleted());
+	}
+
+	private void printCacheStats(EntityManagerFactory entityManagerFactory){
+		Statistics stats=entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+		System.out.println("Second level cache hits "+stats.getSecondLevelCacheHitCount()
+			+" misses "+stats.getSecondLevelCacheMissCount()
+			+" puts "+stats.getSecondLevelCachePutCount());
+		System.out.println("Query cache hits "+stats.getQueryCacheHitCount()
+			+" misses "+stats.getQueryCacheMissCount()
+			+" puts "+stats.getQueryCachePutCount());
+
+		for(String region: stats.getSecondLevelCacheRegionNames()){
+			CacheRegionStatistics regionStats=stats.getCacheRegionStatistics(region);
+			System.out.println("Region "+region
+				+" hits "+regionStats.getHitCount()
+				+" misses "+regionStats.getMissCount()
+				+" in memory "+regionStats.getElementCountInMemory());
+		}
+		// evictions are on the JCache MBeans: javax.cache:type=CacheStatistics,*
+	}
+
 }
@@ -1,16 +1,30 @@
 package com.paras.crudDemo.DAO;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
 
 import com.paras.crudDemo.Entity.Student;
 
 public interface StudentDAO {
     void save(Student theStudent);
+    void saveAll(Collection<Student> theStudents);
     Student findById(Integer id);
     List<Student>findByAll();
+    long streamAll(int fetchSize,Consumer<Student> action);
     List<Student>findByLastName(String lName);
+    List<Student>searchByLastNamePrefix(String prefix,int limit);
+    StudentPage findPageAfter(String pageToken,int limit);
+    StudentPage findByLastNamePageAfter(String lName,String pageToken,int limit);
     // Student updateStudent(String currEmail,String updatedEmail);
     void update(Student theStudent);
-    void dlete(Integer Id);
+    int updateFields(Integer id,Map<String,Object> changes);
+    int backfillLastNameLower();
+    boolean dlete(Integer Id);
     int dleteAll();
+    int dleteAll(Collection<Integer> ids);
+    long count();
+    Integer findChunkUpperId(int afterId,int chunkSize);
+    int dleteIdRange(int afterId,int upToId);
 }
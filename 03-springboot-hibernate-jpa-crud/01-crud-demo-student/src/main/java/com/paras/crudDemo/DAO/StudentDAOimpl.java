@@ -1,24 +1,50 @@
 package com.paras.crudDemo.DAO;
 
+import java.lang.invoke.MethodType;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import org.hibernate.CacheMode;
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
+import org.hibernate.Session;
+import org.hibernate.jpa.HibernateHints;
+import org.hibernate.query.SelectionQuery;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Repository;
 
 import com.paras.crudDemo.Entity.Student;
 
 import jakarta.persistence.EntityManager;
+import jakarta.persistence.Query;
 import jakarta.persistence.TypedQuery;
+import jakarta.persistence.metamodel.Attribute;
+import jakarta.persistence.metamodel.EntityType;
+import jakarta.persistence.metamodel.SingularAttribute;
 import jakarta.transaction.Transactional;
 
 @Repository
 public class StudentDAOimpl implements StudentDAO {
 
+    // keeps IN lists well under driver/optimizer limits
+    private static final int MAX_IN_LIST_SIZE=1000;
+
     private EntityManager entityManager;
+    private int batchSize;
 
     @Autowired
-    public StudentDAOimpl(EntityManager entityManager) {
+    public StudentDAOimpl(EntityManager entityManager,
+                          @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:50}") int batchSize) {
         this.entityManager=entityManager;
+        this.batchSize=batchSize;
     }
 
 
@@ -28,6 +54,21 @@ public class StudentDAOimpl implements StudentDAO {
         entityManager.persist(theStudent);
     }
 
+    @Override
+    @Transactional
+    public void saveAll(Collection<Student> theStudents) {
+        int count=0;
+        for(Student theStudent: theStudents){
+            entityManager.persist(theStudent);
+            count++;
+            // flush one JDBC batch and detach it so the persistence context does not grow with the input
+            if(count%batchSize==0){
+                entityManager.flush();
+                entityManager.clear();
+            }
+        }
+    }
+
     @Override
     public Student findById(Integer id) {
         return entityManager.find(Student.class,id);
@@ -39,12 +80,118 @@ public class StudentDAOimpl implements StudentDAO {
         return theQuery.getResultList();
     }
 
+    @Override
+    @Transactional
+    public long streamAll(int fetchSize,Consumer<Student> action) {
+        // checked before the cursor opens, it also sets how often processed rows are cleared
+        if(fetchSize<1){
+            throw new IllegalArgumentException("Fetch size must be positive "+fetchSize);
+        }
+        Session session=entityManager.unwrap(Session.class);
+        // read only + forward only cursor, rows are handed to the action as they come off the wire
+        SelectionQuery<Student>theQuery=session.createSelectionQuery("From Student order by id desc",Student.class)
+            .setFetchSize(fetchSize)
+            .setReadOnly(true)
+            .setCacheMode(CacheMode.IGNORE);
+
+        long count=0;
+        try(ScrollableResults<Student>results=theQuery.scroll(ScrollMode.FORWARD_ONLY)){
+            while(results.next()){
+                action.accept(results.get());
+                count++;
+                // detach what was already processed so heap stays flat
+                if(count%fetchSize==0){
+                    session.clear();
+                }
+            }
+        }
+        return count;
+    }
+
     @Override
     public List<Student> findByLastName(String lastName) {
         TypedQuery<Student>theQuery=entityManager.createQuery("From Student where lastName=:lName",Student.class);
         theQuery.setParameter("lName", lastName);
+        // result ids go to the query cache, invalidated by any write to the student table
+        theQuery.setHint(HibernateHints.HINT_CACHEABLE, true);
+        return theQuery.getResultList();
+    }
+
+    // case insensitive, range scan on idx_student_last_name_lower_id
+    @Override
+    public List<Student> searchByLastNamePrefix(String prefix, int limit) {
+        if(limit<1){
+            throw new IllegalArgumentException("Search limit must be positive "+limit);
+        }
+        String pattern=escapeLike(Student.normalizeLastName(prefix==null ? "" : prefix))+"%";
+        TypedQuery<Student>theQuery=entityManager.createQuery(
+            "From Student where lastNameLower like :prefix escape '\\' order by lastNameLower, id",Student.class);
+        theQuery.setParameter("prefix", pattern);
+        theQuery.setMaxResults(limit);
         return theQuery.getResultList();
     }
+
+    private String escapeLike(String value) {
+        return value.replace("\\","\\\\").replace("%","\\%").replace("_","\\_");
+    }
+
+    // keyset pages walk the primary key, so every page is an index seek no matter how deep
+    @Override
+    public StudentPage findPageAfter(String pageToken, int limit) {
+        Integer lastSeenId=decodePageToken(pageToken);
+        TypedQuery<Student>theQuery;
+        if(lastSeenId==null){
+            theQuery=entityManager.createQuery("From Student order by id desc",Student.class);
+        }else{
+            theQuery=entityManager.createQuery("From Student where id<:lastId order by id desc",Student.class);
+            theQuery.setParameter("lastId", lastSeenId);
+        }
+        return toPage(theQuery,limit);
+    }
+
+    // seeks the (last_name,id) index
+    @Override
+    public StudentPage findByLastNamePageAfter(String lastName, String pageToken, int limit) {
+        Integer lastSeenId=decodePageToken(pageToken);
+        TypedQuery<Student>theQuery;
+        if(lastSeenId==null){
+            theQuery=entityManager.createQuery("From Student where lastName=:lName order by id",Student.class);
+        }else{
+            theQuery=entityManager.createQuery("From Student where lastName=:lName and id>:lastId order by id",Student.class);
+            theQuery.setParameter("lastId", lastSeenId);
+        }
+        theQuery.setParameter("lName", lastName);
+        return toPage(theQuery,limit);
+    }
+
+    private StudentPage toPage(TypedQuery<Student> theQuery, int limit) {
+        if(limit<1){
+            throw new IllegalArgumentException("Page limit must be positive "+limit);
+        }
+        // one extra row tells us whether there is a next page without a count query
+        List<Student>students=theQuery.setMaxResults(limit+1).getResultList();
+        if(students.size()<=limit){
+            return new StudentPage(students,null);
+        }
+        students=students.subList(0,limit);
+        return new StudentPage(students,encodePageToken(students.get(limit-1).getId()));
+    }
+
+    private String encodePageToken(int lastSeenId) {
+        return Base64.getUrlEncoder().withoutPadding()
+            .encodeToString(Integer.toString(lastSeenId).getBytes(StandardCharsets.UTF_8));
+    }
+
+    private Integer decodePageToken(String pageToken) {
+        if(pageToken==null || pageToken.isEmpty()){
+            return null;
+        }
+        try{
+            return Integer.valueOf(new String(Base64.getUrlDecoder().decode(pageToken),StandardCharsets.UTF_8));
+        }catch(IllegalArgumentException exc){
+            throw new IllegalArgumentException("Invalid page token "+pageToken,exc);
+        }
+    }
   
     //rough done by me
     // @Override
@@ -71,17 +218,153 @@ public class StudentDAOimpl implements StudentDAO {
         entityManager.merge(theStudent);
     }
 
+    // one UPDATE of just the changed columns, no SELECT and no merge of the full entity
+    @Override
+    @Transactional
+    public int updateFields(Integer id, Map<String, Object> changes) {
+        if(changes==null || changes.isEmpty()){
+            throw new IllegalArgumentException("No fields to update for student id "+id);
+        }
+
+        if(changes.containsKey("lastNameLower")){
+            throw new IllegalArgumentException("Student lastNameLower is derived from lastName");
+        }
+        // bulk updates skip @PreUpdate, keep the normalized column in step by hand
+        if(changes.containsKey("lastName")){
+            Object lastName=changes.get("lastName");
+            changes=new LinkedHashMap<>(changes);
+            changes.put("lastNameLower",lastName instanceof String s ? Student.normalizeLastName(s) : null);
+        }
+
+        EntityType<Student>studentType=entityManager.getMetamodel().entity(Student.class);
+        StringBuilder jpql=new StringBuilder("UPDATE Student set ");
+        int index=0;
+        for(Map.Entry<String,Object> change: changes.entrySet()){
+            String field=change.getKey();
+            Attribute<? super Student,?>attribute;
+            try{
+                attribute=studentType.getAttribute(field);
+            }catch(IllegalArgumentException exc){
+                throw new IllegalArgumentException("Unknown student field "+field,exc);
+            }
+            if(attribute instanceof SingularAttribute<?,?> singular && singular.isId()){
+                throw new IllegalArgumentException("Student id can not be updated");
+            }
+            Object value=change.getValue();
+            // an int attribute reports int.class, the value comes in as an Integer
+            Class<?> type=attribute.getJavaType();
+            if(value==null && type.isPrimitive()){
+                throw new IllegalArgumentException("Student field "+field+" can not be null");
+            }
+            if(value!=null && !MethodType.methodType(type).wrap().returnType().isInstance(value)){
+                throw new IllegalArgumentException("Wrong type for student field "+field+": "+value.getClass().getSimpleName());
+            }
+            if(index>0){
+                jpql.append(", ");
+            }
+            jpql.append(field).append("=:p").append(index++);
+        }
+        jpql.append(" where id=:id");
+
+        Query theQuery=entityManager.createQuery(jpql.toString());
+        index=0;
+        for(Object value: changes.values()){
+            theQuery.setParameter("p"+index++, value);
+        }
+        theQuery.setParameter("id", id);
+
+        int numberOfUpdates=theQuery.executeUpdate();
+        entityManager.getEntityManagerFactory().getCache().evict(Student.class,id);
+        return numberOfUpdates;
+    }
+
+    // rows written before last_name_lower existed get NULL from ddl-auto=update and never match a prefix search
+    @Override
+    @Transactional
+    public int backfillLastNameLower() {
+        int numberOfUpdates=entityManager.createQuery(
+            "UPDATE Student set lastNameLower=lower(lastName) where lastNameLower is null and lastName is not null")
+            .executeUpdate();
+        if(numberOfUpdates>0){
+            entityManager.getEntityManagerFactory().getCache().evict(Student.class);
+        }
+        return numberOfUpdates;
+    }
+
     @Override
     @Transactional
-    public void dlete(Integer Id) {
-        Student theStudent=entityManager.find(Student.class,Id);
-        entityManager.remove(theStudent);
+    public boolean dlete(Integer Id) {
+        // single DELETE, no find() and no hydration, false when the id did not exist
+        int numberOfDeletes=entityManager.createQuery("DELETE from Student where id=:id")
+            .setParameter("id", Id)
+            .executeUpdate();
+        entityManager.getEntityManagerFactory().getCache().evict(Student.class,Id);
+        return numberOfDeletes>0;
     }
 
     @Override
     @Transactional
     public int dleteAll() {
         int numberOfDeletes=entityManager.createQuery("DELETE from Student").executeUpdate();
+        // bulk JPQL bypasses the entity lifecycle, drop the whole Student region
+        entityManager.getEntityManagerFactory().getCache().evict(Student.class);
+        return numberOfDeletes;
+    }
+
+    @Override
+    @Transactional
+    public int dleteAll(Collection<Integer> ids) {
+        int numberOfDeletes=0;
+        List<Integer>chunk=new ArrayList<>(Math.min(ids.size(),MAX_IN_LIST_SIZE));
+        for(Integer id: ids){
+            chunk.add(id);
+            if(chunk.size()==MAX_IN_LIST_SIZE){
+                numberOfDeletes+=dleteIds(chunk);
+                chunk.clear();
+            }
+        }
+        if(!chunk.isEmpty()){
+            numberOfDeletes+=dleteIds(chunk);
+        }
+        return numberOfDeletes;
+    }
+
+    private int dleteIds(List<Integer> ids) {
+        int numberOfDeletes=entityManager.createQuery("DELETE from Student where id in :ids")
+            .setParameter("ids", ids)
+            .executeUpdate();
+        for(Integer id: ids){
+            entityManager.getEntityManagerFactory().getCache().evict(Student.class,id);
+        }
+        return numberOfDeletes;
+    }
+
+
+    @Override
+    public long count() {
+        return entityManager.createQuery("select count(s) from Student s",Long.class).getSingleResult();
+    }
+
+    // id of the chunkSize-th row after afterId, null when fewer rows are left
+    @Override
+    public Integer findChunkUpperId(int afterId, int chunkSize) {
+        List<Integer>ids=entityManager.createQuery("select s.id from Student s where s.id>:afterId order by s.id",Integer.class)
+            .setParameter("afterId", afterId)
+            .setFirstResult(chunkSize-1)
+            .setMaxResults(1)
+            .getResultList();
+        return ids.isEmpty() ? null : ids.get(0);
+    }
+
+    // short transaction per range so locks and undo stay bounded by the chunk size
+    @Override
+    @Transactional
+    public int dleteIdRange(int afterId, int upToId) {
+        int numberOfDeletes=entityManager.createQuery("DELETE from Student where id>:afterId and id<=:upToId")
+            .setParameter("afterId", afterId)
+            .setParameter("upToId", upToId)
+            .executeUpdate();
+        entityManager.getEntityManagerFactory().getCache().evict(Student.class);
         return numberOfDeletes;
     }
 
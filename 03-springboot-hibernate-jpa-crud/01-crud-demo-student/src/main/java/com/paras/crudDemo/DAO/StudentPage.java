@@ -0,0 +1,40 @@
+package com.paras.crudDemo.DAO;
+
+import java.util.List;
+
+import com.paras.crudDemo.Entity.Student;
+
+public class StudentPage {
+    private List<Student> students;
+    // opaque keyset position, null when this is the last page
+    private String nextPageToken;
+
+
+    public StudentPage(List<Student> students, String nextPageToken) {
+        this.students = students;
+        this.nextPageToken = nextPageToken;
+    }
+
+
+    public List<Student> getStudents() {
+        return this.students;
+    }
+
+    public String getNextPageToken() {
+        return this.nextPageToken;
+    }
+
+    public boolean hasNext() {
+        return this.nextPageToken != null;
+    }
+
+
+    @Override
+    public String toString() {
+        return "StudentPage{" +
+            " students='" + getStudents().size() + "'" +
+            ", nextPageToken='" + getNextPageToken() + "'" +
+            "}";
+    }
+
+}
@@ -1,18 +1,35 @@
 package com.paras.crudDemo.Entity;
 
+import java.util.Locale;
+
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
 
 @Entity
-@Table(name="student")
+@Cacheable
+@Cache(usage=CacheConcurrencyStrategy.READ_WRITE)
+@Table(name="student",indexes={
+    @Index(name="idx_student_last_name_id",columnList="last_name,id"),
+    @Index(name="idx_student_last_name_lower_id",columnList="last_name_lower,id")
+})
 public class Student {
     //define fields
+    // pooled sequence instead of IDENTITY, IDENTITY forces an insert per persist and disables JDBC batching
     @Id
-    @GeneratedValue(strategy=GenerationType.IDENTITY)
+    @GeneratedValue(strategy=GenerationType.SEQUENCE,generator="student_seq")
+    @SequenceGenerator(name="student_seq",sequenceName="student_seq",allocationSize=50)
     @Column(name="id")
     private int id;
 
@@ -22,6 +39,10 @@ public class Student {
     @Column(name="last_name")
     private String lastName;
 
+    // lower cased copy of lastName so case insensitive prefix searches can use an index
+    @Column(name="last_name_lower")
+    private String lastNameLower;
+
     @Column(name="email")
     private String email;
 
@@ -32,7 +53,7 @@ public class Student {
 
     public Student(String firstName,String lastName,String email){
         this.firstName=firstName;
-        this.lastName=lastName;
+        setLastName(lastName);
         this.email=email;
     }
 
@@ -61,6 +82,21 @@ public class Student {
 
     public void setLastName(String lastName){
         this.lastName=lastName;
+        this.lastNameLower=normalizeLastName(lastName);
+    }
+
+    public String getLastNameLower(){
+        return lastNameLower;
+    }
+
+    public static String normalizeLastName(String lastName){
+        return lastName==null ? null : lastName.toLowerCase(Locale.ROOT);
+    }
+
+    @PrePersist
+    @PreUpdate
+    private void syncLastNameLower(){
+        lastNameLower=normalizeLastName(lastName);
     }
 
     public String getEmail(){
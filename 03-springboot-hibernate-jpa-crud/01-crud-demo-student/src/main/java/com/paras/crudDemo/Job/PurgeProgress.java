@@ -0,0 +1,57 @@
+package com.paras.crudDemo.Job;
+
+public class PurgeProgress {
+    private long rowsDeleted;
+    private long totalRows;
+    private int lastDeletedId;
+    private long elapsedMillis;
+
+
+    public PurgeProgress(long rowsDeleted, long totalRows, int lastDeletedId, long elapsedMillis) {
+        this.rowsDeleted = rowsDeleted;
+        this.totalRows = totalRows;
+        this.lastDeletedId = lastDeletedId;
+        this.elapsedMillis = elapsedMillis;
+    }
+
+
+    public long getRowsDeleted() {
+        return this.rowsDeleted;
+    }
+
+    public long getTotalRows() {
+        return this.totalRows;
+    }
+
+    // pass this back to StudentPurgeJob.purge to resume after a crash
+    public int getLastDeletedId() {
+        return this.lastDeletedId;
+    }
+
+    public long getElapsedMillis() {
+        return this.elapsedMillis;
+    }
+
+    public double getRowsPerSecond() {
+        return elapsedMillis==0 ? 0 : rowsDeleted*1000.0/elapsedMillis;
+    }
+
+    public long getEtaMillis() {
+        double rate=getRowsPerSecond();
+        long remaining=Math.max(totalRows-rowsDeleted,0);
+        return rate==0 ? -1 : (long)(remaining*1000/rate);
+    }
+
+
+    @Override
+    public String toString() {
+        return "PurgeProgress{" +
+            " rowsDeleted='" + getRowsDeleted() + "'" +
+            ", totalRows='" + getTotalRows() + "'" +
+            ", lastDeletedId='" + getLastDeletedId() + "'" +
+            ", rowsPerSecond='" + (long)getRowsPerSecond() + "'" +
+            ", etaMillis='" + getEtaMillis() + "'" +
+            "}";
+    }
+
+}
@@ -0,0 +1,71 @@
+package com.paras.crudDemo.Job;
+
+import java.util.function.Consumer;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.paras.crudDemo.DAO.StudentDAO;
+
+// deletes the student table in ascending id ranges, one short transaction per chunk
+// every chunk commits on its own, so after a crash purge(lastDeletedId,...) carries on with what is left
+@Component
+public class StudentPurgeJob {
+
+    private StudentDAO studentDAO;
+    private int chunkSize;
+    private long pauseMillis;
+
+    @Autowired
+    public StudentPurgeJob(StudentDAO studentDAO,
+                           @Value("${student.purge.chunk-size:5000}") int chunkSize,
+                           @Value("${student.purge.pause-ms:0}") long pauseMillis) {
+        if(chunkSize<1){
+            throw new IllegalArgumentException("Purge chunk size must be positive "+chunkSize);
+        }
+        this.studentDAO=studentDAO;
+        this.chunkSize=chunkSize;
+        this.pauseMillis=pauseMillis;
+    }
+
+    public PurgeProgress purge(Consumer<PurgeProgress> listener) {
+        return purge(0,listener);
+    }
+
+    public PurgeProgress purge(int afterId,Consumer<PurgeProgress> listener) {
+        long totalRows=studentDAO.count();
+        long rowsDeleted=0;
+        int cursor=afterId;
+        long start=System.currentTimeMillis();
+
+        PurgeProgress progress=new PurgeProgress(rowsDeleted,totalRows,cursor,0);
+        boolean lastChunk=false;
+        while(!lastChunk){
+            Integer upToId=studentDAO.findChunkUpperId(cursor,chunkSize);
+            lastChunk=upToId==null;
+            int rangeEnd=lastChunk ? Integer.MAX_VALUE : upToId;
+
+            rowsDeleted+=studentDAO.dleteIdRange(cursor,rangeEnd);
+            cursor=rangeEnd;
+
+            progress=new PurgeProgress(rowsDeleted,totalRows,cursor,System.currentTimeMillis()-start);
+            listener.accept(progress);
+
+            if(!lastChunk && pauseMillis>0){
+                pause();
+            }
+        }
+        return progress;
+    }
+
+    private void pause() {
+        try{
+            Thread.sleep(pauseMillis);
+        }catch(InterruptedException exc){
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Student purge interrupted",exc);
+        }
+    }
+
+}
@@ -0,0 +1,45 @@
+package com.paras.crudDemo.Metrics;
+
+// per thread running totals fed by Hibernate callbacks, the DAO aspect diffs them around each call
+public final class DaoOperationStats {
+
+    private static final ThreadLocal<DaoOperationStats> CURRENT=ThreadLocal.withInitial(DaoOperationStats::new);
+
+    long statements;
+    long entitiesLoaded;
+    long flushes;
+    long jdbcNanos;
+
+    private DaoOperationStats() {
+    }
+
+    public static DaoOperationStats current() {
+        return CURRENT.get();
+    }
+
+    public DaoOperationStats snapshot() {
+        DaoOperationStats copy=new DaoOperationStats();
+        copy.statements=statements;
+        copy.entitiesLoaded=entitiesLoaded;
+        copy.flushes=flushes;
+        copy.jdbcNanos=jdbcNanos;
+        return copy;
+    }
+
+    public long getStatements() {
+        return this.statements;
+    }
+
+    public long getEntitiesLoaded() {
+        return this.entitiesLoaded;
+    }
+
+    public long getFlushes() {
+        return this.flushes;
+    }
+
+    public long getJdbcNanos() {
+        return this.jdbcNanos;
+    }
+
+}
@@ -0,0 +1,36 @@
+package com.paras.crudDemo.Metrics;
+
+import org.hibernate.SessionEventListener;
+
+// one instance per session through hibernate.session.events.auto
+public class JdbcTimingSessionListener implements SessionEventListener {
+
+    private long executeStart;
+    private long batchStart;
+
+    @Override
+    public void jdbcExecuteStatementStart() {
+        executeStart=System.nanoTime();
+    }
+
+    @Override
+    public void jdbcExecuteStatementEnd() {
+        DaoOperationStats.current().jdbcNanos+=System.nanoTime()-executeStart;
+    }
+
+    @Override
+    public void jdbcExecuteBatchStart() {
+        batchStart=System.nanoTime();
+    }
+
+    @Override
+    public void jdbcExecuteBatchEnd() {
+        DaoOperationStats.current().jdbcNanos+=System.nanoTime()-batchStart;
+    }
+
+    @Override
+    public void flushEnd(int numberOfEntities, int numberOfCollections) {
+        DaoOperationStats.current().flushes++;
+    }
+
+}
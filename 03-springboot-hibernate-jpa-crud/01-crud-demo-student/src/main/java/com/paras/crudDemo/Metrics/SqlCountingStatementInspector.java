@@ -0,0 +1,14 @@
+package com.paras.crudDemo.Metrics;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+// registered through hibernate.session_factory.statement_inspector, sees every SQL string Hibernate prepares
+public class SqlCountingStatementInspector implements StatementInspector {
+
+    @Override
+    public String inspect(String sql) {
+        DaoOperationStats.current().statements++;
+        return sql;
+    }
+
+}
@@ -0,0 +1,95 @@
+package com.paras.crudDemo.Metrics;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.persistence.EntityManagerFactory;
+
+// per StudentDAO method: latency histogram, SQL statements, entities loaded, flushes and JDBC time
+@Aspect
+@Component
+public class StudentDAOMetricsAspect {
+
+    private MeterRegistry meterRegistry;
+    // built on a method's first call, every later call is one map lookup instead of five registry lookups.
+    // keyed by the Method, so overloads like dleteAll() and dleteAll(Collection) get meters of their own
+    private final Map<Method,Meters> meters=new ConcurrentHashMap<>();
+
+    public StudentDAOMetricsAspect(MeterRegistry meterRegistry,EntityManagerFactory entityManagerFactory) {
+        this.meterRegistry=meterRegistry;
+        // Hibernate statistics are global, so loads are counted per thread with a post load listener instead
+        entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+            .getServiceRegistry()
+            .requireService(EventListenerRegistry.class)
+            .appendListeners(EventType.POST_LOAD,event -> DaoOperationStats.current().entitiesLoaded++);
+    }
+
+    @Around("execution(* com.paras.crudDemo.DAO.StudentDAO.*(..))")
+    public Object recordOperation(ProceedingJoinPoint joinPoint) throws Throwable {
+        Method method=((MethodSignature)joinPoint.getSignature()).getMethod();
+        DaoOperationStats before=DaoOperationStats.current().snapshot();
+        long start=System.nanoTime();
+        try{
+            return joinPoint.proceed();
+        }finally{
+            long elapsed=System.nanoTime()-start;
+            DaoOperationStats after=DaoOperationStats.current();
+
+            Meters methodMeters=meters.computeIfAbsent(method,this::register);
+            methodMeters.calls().record(elapsed,TimeUnit.NANOSECONDS);
+            methodMeters.statements().record(after.statements-before.statements);
+            methodMeters.entitiesLoaded().record(after.entitiesLoaded-before.entitiesLoaded);
+            methodMeters.flushes().record(after.flushes-before.flushes);
+            methodMeters.jdbcTime().record(after.jdbcNanos-before.jdbcNanos,TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private Meters register(Method theMethod) {
+        String method=tagOf(theMethod);
+        return new Meters(
+            Timer.builder("student.dao.calls")
+                .tag("method",method)
+                .publishPercentileHistogram()
+                .register(meterRegistry),
+            summary("student.dao.statements",method),
+            summary("student.dao.entities.loaded",method),
+            summary("student.dao.flushes",method),
+            Timer.builder("student.dao.jdbc.time")
+                .tag("method",method)
+                .register(meterRegistry));
+    }
+
+    // name and parameter types, e.g. dleteAll(Collection)
+    private static String tagOf(Method method) {
+        return Arrays.stream(method.getParameterTypes())
+            .map(Class::getSimpleName)
+            .collect(Collectors.joining(",",method.getName()+"(",")"));
+    }
+
+    private DistributionSummary summary(String name,String method) {
+        return DistributionSummary.builder(name)
+            .tag("method",method)
+            .register(meterRegistry);
+    }
+
+    private record Meters(Timer calls,DistributionSummary statements,DistributionSummary entitiesLoaded,
+            DistributionSummary flushes,Timer jdbcTime) {
+    }
+
+}
@@ -0,0 +1,37 @@
+package com.paras.crudDemo.Benchmark;
+
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.FilterType;
+
+import com.paras.crudDemo.CrudDemoApplication;
+
+// same beans as crudDemo minus CrudDemoApplication, whose CommandLineRunner would insert demo rows
+@Configuration
+@EnableAutoConfiguration
+@EntityScan("com.paras.crudDemo.Entity")
+@ComponentScan(basePackages="com.paras.crudDemo",
+    excludeFilters={
+        @ComponentScan.Filter(type=FilterType.ASSIGNABLE_TYPE,classes=CrudDemoApplication.class),
+        @ComponentScan.Filter(type=FilterType.REGEX,pattern="com\\.paras\\.crudDemo\\.Benchmark\\..*")
+    })
+public class BenchmarkApplication {
+
+    // one in-memory H2 database per seed size, in MySQL mode so the DAO queries run unchanged
+    public static ConfigurableApplicationContext start(String databaseName) {
+        return new SpringApplicationBuilder(BenchmarkApplication.class)
+            .web(org.springframework.boot.WebApplicationType.NONE)
+            .run("--spring.datasource.url=jdbc:h2:mem:"+databaseName+";MODE=MySQL;DB_CLOSE_DELAY=-1",
+                 "--spring.datasource.username=sa",
+                 "--spring.datasource.password=",
+                 "--spring.jpa.hibernate.ddl-auto=create",
+                 "--logging.level.root=error",
+                 "--logging.level.org.hibernate.SQL=off",
+                 "--logging.level.org.hibernates.orm.jdbc.bind=off");
+    }
+
+}
@@ -0,0 +1,35 @@
+package com.paras.crudDemo.Benchmark;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+// takes the regular JMH flags (-p rows=10000, -f 2, -rff out.json, ...), defaults below only fill the gaps
+public class BenchmarkRunner {
+
+	public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+		CommandLineOptions cmdOptions=new CommandLineOptions(args);
+		OptionsBuilder options=new OptionsBuilder();
+		options.parent(cmdOptions);
+
+		if(cmdOptions.getIncludes().isEmpty()){
+			options.include("com\\.paras\\.crudDemo\\.Benchmark\\..*Benchmark");
+		}
+		if(!cmdOptions.getForkCount().hasValue()){
+			options.forks(1);
+		}
+		// machine readable results so two runs can be diffed
+		if(!cmdOptions.getResultFormat().hasValue()){
+			options.resultFormat(ResultFormatType.JSON);
+		}
+		if(!cmdOptions.getResult().hasValue()){
+			options.result("target/jmh-result.json");
+		}
+
+		new Runner(options.build()).run();
+	}
+
+}
@@ -0,0 +1,56 @@
+package com.paras.crudDemo.Benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.paras.crudDemo.DAO.StudentDAO;
+
+// dleteAll empties the table, so every iteration is one call on a freshly seeded table
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations=2)
+@Measurement(iterations=5)
+public class StudentDeleteAllBenchmark {
+
+    @Param({"10000","100000","1000000"})
+    public int rows;
+
+    private ConfigurableApplicationContext context;
+    private StudentDAO studentDAO;
+
+    @Setup
+    public void setUp() {
+        context=BenchmarkApplication.start("delete_"+rows);
+        studentDAO=context.getBean(StudentDAO.class);
+    }
+
+    @Setup(Level.Iteration)
+    public void seed() {
+        StudentSeeder.seed(studentDAO,rows);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public int dleteAll() {
+        return studentDAO.dleteAll();
+    }
+
+}
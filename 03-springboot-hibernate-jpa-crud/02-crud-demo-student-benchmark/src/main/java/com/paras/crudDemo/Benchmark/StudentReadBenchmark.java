@@ -0,0 +1,91 @@
+package com.paras.crudDemo.Benchmark;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.paras.crudDemo.DAO.StudentDAO;
+import com.paras.crudDemo.DAO.StudentPage;
+import com.paras.crudDemo.Entity.Student;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations=3,time=5)
+@Measurement(iterations=5,time=5)
+public class StudentReadBenchmark {
+
+    private static final int PAGE_SIZE=100;
+
+    @Param({"10000","100000","1000000"})
+    public int rows;
+
+    private ConfigurableApplicationContext context;
+    private StudentDAO studentDAO;
+    private int minId;
+    private int maxId;
+    private String deepPageToken;
+
+    @Setup
+    public void setUp() {
+        context=BenchmarkApplication.start("read_"+rows);
+        studentDAO=context.getBean(StudentDAO.class);
+        StudentSeeder.seed(studentDAO,rows);
+
+        maxId=studentDAO.findPageAfter(null,1).getStudents().get(0).getId();
+        minId=maxId-rows+1;
+
+        // walk to the last full page so findPageAfterDeep measures the deepest seek
+        String token=null;
+        StudentPage page;
+        do{
+            deepPageToken=token;
+            page=studentDAO.findPageAfter(token,PAGE_SIZE*10);
+            token=page.getNextPageToken();
+        }while(token!=null);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Student findById() {
+        return studentDAO.findById(ThreadLocalRandom.current().nextInt(minId,maxId+1));
+    }
+
+    @Benchmark
+    public List<Student> findByAll() {
+        return studentDAO.findByAll();
+    }
+
+    @Benchmark
+    public List<Student> findByLastName() {
+        return studentDAO.findByLastName(StudentSeeder.lastName(ThreadLocalRandom.current().nextInt(StudentSeeder.LAST_NAMES)));
+    }
+
+    @Benchmark
+    public StudentPage findPageAfterFirst() {
+        return studentDAO.findPageAfter(null,PAGE_SIZE);
+    }
+
+    @Benchmark
+    public StudentPage findPageAfterDeep() {
+        return studentDAO.findPageAfter(deepPageToken,PAGE_SIZE);
+    }
+
+}
@@ -0,0 +1,78 @@
+package com.paras.crudDemo.Benchmark;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.paras.crudDemo.DAO.StudentDAO;
+import com.paras.crudDemo.Entity.Student;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+
+// case insensitive last name prefix search: lower(last_name) full scan vs the last_name_lower index
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations=3,time=5)
+@Measurement(iterations=5,time=5)
+public class StudentSearchBenchmark {
+
+    private static final int LIMIT=20;
+
+    @Param({"10000","100000","1000000"})
+    public int rows;
+
+    private ConfigurableApplicationContext context;
+    private StudentDAO studentDAO;
+    private EntityManager entityManager;
+
+    @Setup
+    public void setUp() {
+        context=BenchmarkApplication.start("search_"+rows);
+        studentDAO=context.getBean(StudentDAO.class);
+        entityManager=context.getBean(EntityManagerFactory.class).createEntityManager();
+        StudentSeeder.seed(studentDAO,rows);
+    }
+
+    @TearDown
+    public void tearDown() {
+        entityManager.close();
+        context.close();
+    }
+
+    @Benchmark
+    public List<Student> lowerLastNameScan() {
+        List<Student>students=entityManager.createQuery(
+                "From Student where lower(lastName) like :prefix order by lower(lastName), id",Student.class)
+            .setParameter("prefix", randomPrefix().toLowerCase()+"%")
+            .setMaxResults(LIMIT)
+            .getResultList();
+        entityManager.clear();
+        return students;
+    }
+
+    @Benchmark
+    public List<Student> searchByLastNamePrefix() {
+        return studentDAO.searchByLastNamePrefix(randomPrefix(),LIMIT);
+    }
+
+    // mixed case on purpose, e.g. "LAST12"
+    private String randomPrefix() {
+        return StudentSeeder.lastName(ThreadLocalRandom.current().nextInt(StudentSeeder.LAST_NAMES)).toUpperCase();
+    }
+
+}
@@ -0,0 +1,38 @@
+package com.paras.crudDemo.Benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.paras.crudDemo.DAO.StudentDAO;
+import com.paras.crudDemo.Entity.Student;
+
+public class StudentSeeder {
+
+    // findByLastName benchmarks pick one of these, so each name matches rows/LAST_NAMES students
+    public static final int LAST_NAMES=1000;
+
+    private static final int SEED_BATCH=10_000;
+
+    public static void seed(StudentDAO studentDAO,int rows) {
+        List<Student>batch=new ArrayList<>(SEED_BATCH);
+        for(int i=0;i<rows;i++){
+            batch.add(newStudent(i));
+            if(batch.size()==SEED_BATCH){
+                studentDAO.saveAll(batch);
+                batch=new ArrayList<>(SEED_BATCH);
+            }
+        }
+        if(!batch.isEmpty()){
+            studentDAO.saveAll(batch);
+        }
+    }
+
+    public static Student newStudent(int i) {
+        return new Student("first"+i,lastName(i),"student"+i+"@gmail.com");
+    }
+
+    public static String lastName(int i) {
+        return "last"+(i%LAST_NAMES);
+    }
+
+}
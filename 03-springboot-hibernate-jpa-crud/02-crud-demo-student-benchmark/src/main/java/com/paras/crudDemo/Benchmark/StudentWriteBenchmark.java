@@ -0,0 +1,86 @@
+package com.paras.crudDemo.Benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.paras.crudDemo.DAO.StudentDAO;
+import com.paras.crudDemo.Entity.Student;
+
+// save/saveAll grow the table during the run, the seed size is the starting point
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations=3,time=5)
+@Measurement(iterations=5,time=5)
+public class StudentWriteBenchmark {
+
+    private static final int BATCH=1000;
+
+    @Param({"10000","100000","1000000"})
+    public int rows;
+
+    private ConfigurableApplicationContext context;
+    private StudentDAO studentDAO;
+    private int minId;
+    private int maxId;
+
+    @Setup
+    public void setUp() {
+        context=BenchmarkApplication.start("write_"+rows);
+        studentDAO=context.getBean(StudentDAO.class);
+        StudentSeeder.seed(studentDAO,rows);
+
+        maxId=studentDAO.findPageAfter(null,1).getStudents().get(0).getId();
+        minId=maxId-rows+1;
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Student save() {
+        Student theStudent=StudentSeeder.newStudent(ThreadLocalRandom.current().nextInt());
+        studentDAO.save(theStudent);
+        return theStudent;
+    }
+
+    // reported per row so it compares directly with save
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public List<Student> saveAll() {
+        List<Student>batch=new ArrayList<>(BATCH);
+        for(int i=0;i<BATCH;i++){
+            batch.add(StudentSeeder.newStudent(i));
+        }
+        studentDAO.saveAll(batch);
+        return batch;
+    }
+
+    @Benchmark
+    public Student update() {
+        int id=ThreadLocalRandom.current().nextInt(minId,maxId+1);
+        Student theStudent=StudentSeeder.newStudent(id);
+        theStudent.setId(id);
+        studentDAO.update(theStudent);
+        return theStudent;
+    }
+
+}
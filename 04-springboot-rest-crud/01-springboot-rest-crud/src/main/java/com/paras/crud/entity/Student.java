@@ -1,6 +1,7 @@
 package com.paras.crud.entity;
 
 public class Student {
+    private int id;
     private String firstName;
     private String lastName;
 
@@ -13,6 +14,20 @@ public class Student {
         this.lastName = lastName;
     }
 
+    public Student(int id, String firstName, String lastName) {
+        this.id = id;
+        this.firstName = firstName;
+        this.lastName = lastName;
+    }
+
+    public int getId() {
+        return this.id;
+    }
+
+    public void setId(int id) {
+        this.id = id;
+    }
+
     public String getFirstName() {
         return this.firstName;
     }
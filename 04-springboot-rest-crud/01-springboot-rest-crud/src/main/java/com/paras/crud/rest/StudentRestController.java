@@ -1,52 +1,136 @@
 package com.paras.crud.rest;
 
-import java.util.ArrayList;
 import java.util.List;
 
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.util.MimeTypeUtils;
+import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.context.request.WebRequest;
 
 import com.paras.crud.entity.Student;
-
-import jakarta.annotation.PostConstruct;
+import com.paras.crud.service.StudentService;
 
 @RestController
 @RequestMapping("/api")
 public class StudentRestController {
+    private static final MediaType SMILE=MediaType.valueOf("application/x-jackson-smile");
 
-    List<Student>theStudents;
+    private StudentService studentService;
 
-    @PostConstruct
-    public void loadData(){
-        theStudents=new ArrayList<>();
-        theStudents.add(new Student("paras","singh"));
-        theStudents.add(new Student("suarav","banty"));
-        theStudents.add(new Student("prabhat","mishra"));
+    @Autowired
+    public StudentRestController(StudentService theStudentService){
+        studentService=theStudentService;
     }
 
 
+    // If-None-Match hits answer 304 from the version alone, without reading the store or running Jackson
     @GetMapping("/students")
-    public List<Student> getStudents(){
-        return theStudents;
+    public ResponseEntity<List<Student>> getStudents(WebRequest webRequest){
+        String eTag=eTag(studentService.getVersion(),format(webRequest));
+        if(notModified(webRequest,eTag)){
+            return null;
+        }
+        return ResponseEntity.ok().eTag(eTag).varyBy(HttpHeaders.ACCEPT).body(studentService.findAll());
     }
 
 
     @GetMapping("/students/{studentID}")
-    public Student getStudent(@PathVariable int studentID){
+    public ResponseEntity<Student> getStudent(@PathVariable int studentID,WebRequest webRequest){
+        String eTag=eTag(studentService.getVersion(studentID),format(webRequest));
+        if(notModified(webRequest,eTag)){
+            return null;
+        }
 
-        if((studentID<0) || (theStudents.size()<studentID)){
+        Student theStudent=studentService.findById(studentID);
+        if(theStudent==null){
             throw new StudentNotFoundException("Student id not found "+studentID);
         }
 
-        return theStudents.get(studentID);
+        return ResponseEntity.ok().eTag(eTag).varyBy(HttpHeaders.ACCEPT).body(theStudent);
     }
 
 
+    @PostMapping("/students")
+    public Student addStudent(@RequestBody Student theStudent){
+        // ids are assigned by the store, any id sent in JSON is ignored
+        return studentService.save(theStudent);
+    }
+
+
+    @PutMapping("/students")
+    public Student updateStudent(@RequestBody Student theStudent){
+        Student updatedStudent=studentService.update(theStudent);
+        if(updatedStudent==null){
+            throw new StudentNotFoundException("Student id not found "+theStudent.getId());
+        }
+        return updatedStudent;
+    }
+
+
+    @DeleteMapping("/students/{studentID}")
+    public String deleteStudent(@PathVariable int studentID){
+        if(!studentService.deleteById(studentID)){
+            throw new StudentNotFoundException("Student id not found "+studentID);
+        }
+        return "Deleted student id of "+studentID;
+    }
+
+
+
+    private String eTag(String version,String format){
+        return "\""+version+format+"\"";
+    }
+
+    // the suffix of the format content negotiation will pick for this Accept: none for JSON (and */*), +smile or +cbor.
+    // a cache must not answer a JSON If-None-Match with CBOR bytes
+    private String format(WebRequest webRequest){
+        String accept=webRequest.getHeader(HttpHeaders.ACCEPT);
+        if(accept==null || accept.isBlank()){
+            return "";
+        }
+        List<MediaType> accepted;
+        try{
+            accepted=MediaType.parseMediaTypes(accept);
+            // MediaType compares quality first, then specificity
+            MimeTypeUtils.sortBySpecificity(accepted);
+        }catch(IllegalArgumentException exc){
+            // Spring rejects this Accept itself, nothing gets a body
+            return "";
+        }
+        for(MediaType type:accepted){
+            if(type.isCompatibleWith(MediaType.APPLICATION_JSON)){
+                return "";
+            }
+            if(type.isCompatibleWith(SMILE)){
+                return "+smile";
+            }
+            if(type.isCompatibleWith(MediaType.APPLICATION_CBOR)){
+                return "+cbor";
+            }
+        }
+        return "";
+    }
+
+    // checkNotModified answers the 304 before any ResponseEntity exists, the Vary has to be on the response already
+    private boolean notModified(WebRequest webRequest,String eTag){
+        if(webRequest instanceof ServletWebRequest servletRequest && servletRequest.getResponse()!=null){
+            servletRequest.getResponse().setHeader(HttpHeaders.VARY,HttpHeaders.ACCEPT);
+        }
+        return webRequest.checkNotModified(eTag);
+    }
 
     @ExceptionHandler
     public ResponseEntity<StudentErrorResponse> handleException(StudentNotFoundException exc){
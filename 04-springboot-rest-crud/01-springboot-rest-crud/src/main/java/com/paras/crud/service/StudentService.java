@@ -0,0 +1,23 @@
+package com.paras.crud.service;
+
+import java.util.List;
+
+import com.paras.crud.entity.Student;
+
+public interface StudentService {
+    List<Student>findAll();
+
+    Student findById(int theId);
+
+    Student save(Student theStudent);
+
+    Student update(Student theStudent);
+
+    boolean deleteById(int theId);
+
+    // change counters behind the ETags, they move on every write
+    String getVersion();
+
+    String getVersion(int theId);
+
+}
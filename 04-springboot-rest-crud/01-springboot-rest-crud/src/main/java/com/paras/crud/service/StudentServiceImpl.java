@@ -0,0 +1,97 @@
+package com.paras.crud.service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.stereotype.Service;
+
+import com.paras.crud.entity.Student;
+
+import jakarta.annotation.PostConstruct;
+
+// students keyed by id in a ConcurrentHashMap: lookups never lock, writers only contend per bin
+// stored instances are never mutated, every write puts a fresh copy so readers never see half an update
+@Service
+public class StudentServiceImpl implements StudentService {
+
+    private final Map<Integer,Student> students=new ConcurrentHashMap<>();
+    private final AtomicInteger nextId=new AtomicInteger();
+
+    // startup epoch keeps versions from before a restart from matching
+    private final String epoch=Long.toString(System.currentTimeMillis(),36);
+    private final AtomicLong version=new AtomicLong();
+    // a delete drops its id, so this stays bounded by the live students. an id without an entry falls back to the
+    // list version, which is past any version the id ever had
+    private final Map<Integer,Long> itemVersions=new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void loadData(){
+        save(new Student("paras","singh"));
+        save(new Student("suarav","banty"));
+        save(new Student("prabhat","mishra"));
+    }
+
+    @Override
+    public List<Student> findAll() {
+        List<Student>theStudents=new ArrayList<>(students.values());
+        theStudents.sort(Comparator.comparingInt(Student::getId));
+        return theStudents;
+    }
+
+    @Override
+    public Student findById(int theId) {
+        return students.get(theId);
+    }
+
+    @Override
+    public Student save(Student theStudent) {
+        Student newStudent=new Student(nextId.incrementAndGet(),theStudent.getFirstName(),theStudent.getLastName());
+        students.put(newStudent.getId(),newStudent);
+        changed(newStudent.getId());
+        return newStudent;
+    }
+
+    // null when there is no student with that id
+    @Override
+    public Student update(Student theStudent) {
+        Student updatedStudent=new Student(theStudent.getId(),theStudent.getFirstName(),theStudent.getLastName());
+        if(students.replace(updatedStudent.getId(),updatedStudent)==null){
+            return null;
+        }
+        changed(updatedStudent.getId());
+        return updatedStudent;
+    }
+
+    @Override
+    public boolean deleteById(int theId) {
+        if(students.remove(theId)==null){
+            return false;
+        }
+        // the list version moves before the id is dropped, so its fallback is already past its last item version
+        version.incrementAndGet();
+        itemVersions.remove(theId);
+        return true;
+    }
+
+    @Override
+    public String getVersion() {
+        return epoch+"-"+version.get();
+    }
+
+    @Override
+    public String getVersion(int theId) {
+        Long itemVersion=itemVersions.get(theId);
+        return epoch+"-"+theId+"-"+(itemVersion!=null ? itemVersion : version.get());
+    }
+
+    // bumped after the write is visible, a reader can pair new data with an old version (one extra 200) but never the reverse
+    private void changed(int theId) {
+        itemVersions.put(theId,version.incrementAndGet());
+    }
+
+}
@@ -2,28 +2,42 @@ package com.paras.crud.rest;
 
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 
 @ControllerAdvice
 public class STudentRestExceptionHandler {
+
+    static final String NOT_FOUND_MESSAGE="Student id not found";
+
+    // the 404 body is the same for every miss, it is shared and only rebuilt once a second (off the request path)
+    // to move the timestamp, so a miss reads no clock
+    private volatile ResponseEntity<StudentErrorResponse> notFoundResponse=buildNotFound(System.currentTimeMillis());
+
     @ExceptionHandler
     public ResponseEntity<StudentErrorResponse> handleException(StudentNotFoundException exc){
-        StudentErrorResponse error=new StudentErrorResponse();
-        error.setStatus(HttpStatus.NOT_FOUND.value());
-        error.setMessage(exc.getMessage());
-        error.setTimeStamp(System.currentTimeMillis());
-
-        return new ResponseEntity<>(error,HttpStatus.NOT_FOUND);
+        return notFound();
     }
 
     @ExceptionHandler
     public ResponseEntity<StudentErrorResponse> handleException(Exception exc){
-        StudentErrorResponse error=new StudentErrorResponse();
-        error.setStatus(HttpStatus.BAD_REQUEST.value());
-        error.setMessage(exc.getMessage());
-        error.setTimeStamp(System.currentTimeMillis());
-        
+        StudentErrorResponse error=new StudentErrorResponse(HttpStatus.BAD_REQUEST.value(),exc.getMessage(),System.currentTimeMillis());
+
         return new ResponseEntity<>(error,HttpStatus.BAD_REQUEST);
     }
+
+    ResponseEntity<StudentErrorResponse> notFound(){
+        return notFoundResponse;
+    }
+
+    @Scheduled(fixedRate=1000)
+    public void refreshNotFound(){
+        notFoundResponse=buildNotFound(System.currentTimeMillis());
+    }
+
+    private static ResponseEntity<StudentErrorResponse> buildNotFound(long timeStamp){
+        StudentErrorResponse error=new StudentErrorResponse(HttpStatus.NOT_FOUND.value(),NOT_FOUND_MESSAGE,timeStamp);
+        return new ResponseEntity<>(error,HttpStatus.NOT_FOUND);
+    }
 }
@@ -1,13 +1,10 @@
 package com.paras.crud.rest;
 
+// immutable, the not-found body is one instance shared by every request
 public class StudentErrorResponse {
-    private int status;
-    private String message;
-    private long timeStamp;
-
-
-    public StudentErrorResponse() {
-    }
+    private final int status;
+    private final String message;
+    private final long timeStamp;
 
 
     public StudentErrorResponse(int status, String message, long timeStamp) {
@@ -21,25 +18,13 @@ public class StudentErrorResponse {
         return this.status;
     }
 
-    public void setStatus(int status) {
-        this.status = status;
-    }
-
     public String getMessage() {
         return this.message;
     }
 
-    public void setMessage(String message) {
-        this.message = message;
-    }
-
     public long getTimeStamp() {
         return this.timeStamp;
     }
 
-    public void setTimeStamp(long timeStamp) {
-        this.timeStamp = timeStamp;
-    }
-
 
 }
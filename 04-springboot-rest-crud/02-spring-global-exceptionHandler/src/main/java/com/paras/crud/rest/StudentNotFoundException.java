@@ -1,16 +1,37 @@
 package com.paras.crud.rest;
 
 public class StudentNotFoundException extends RuntimeException {
+    private final int studentId;
+
+    // not-found is a normal outcome, so no stack trace is captured and the message is only built if someone asks
+    public StudentNotFoundException(int studentId) {
+        super(null,null,false,false);
+        this.studentId = studentId;
+    }
+
     public StudentNotFoundException(String message) {
-        super(message);
+        super(message,null,false,false);
+        this.studentId = -1;
     }
 
     public StudentNotFoundException(String message,Throwable cause) {
         super(message,cause);
+        this.studentId = -1;
     }
 
     public StudentNotFoundException(Throwable cause) {
         super(cause);
+        this.studentId = -1;
+    }
+
+    public int getStudentId() {
+        return this.studentId;
+    }
+
+    @Override
+    public String getMessage() {
+        String message=super.getMessage();
+        return message!=null ? message : "Student id not found "+studentId;
     }
 
 }
@@ -36,8 +36,8 @@ public class StudentRestController {
     @GetMapping("/students/{studentID}")
     public Student getStudent(@PathVariable int studentID){
 
-        if((studentID<0) || (theStudents.size()<studentID)){
-            throw new StudentNotFoundException("Student id not found "+studentID);
+        if((studentID<0) || (studentID>=theStudents.size())){
+            throw new StudentNotFoundException(studentID);
         }
 
         return theStudents.get(studentID);
@@ -0,0 +1,70 @@
+package com.paras.crud.rest;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+// 100% miss traffic: old stack-capturing exception + fresh error body vs stackless exception + shared body
+// run with: mvn test-compile exec:exec -Dexec.executable=java -Dexec.classpathScope=test
+//           -Dexec.args="-cp %classpath com.paras.crud.rest.StudentNotFoundBenchmark"
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations=3,time=2)
+@Measurement(iterations=5,time=2)
+public class StudentNotFoundBenchmark {
+
+    // roughly how deep a controller call sits under Tomcat + Spring MVC
+    @Param({"20","120"})
+    public int stackDepth;
+
+    private STudentRestExceptionHandler handler=new STudentRestExceptionHandler();
+    private int studentID=42;
+
+    @Benchmark
+    public ResponseEntity<StudentErrorResponse> before() {
+        return missAt(stackDepth,true);
+    }
+
+    @Benchmark
+    public ResponseEntity<StudentErrorResponse> after() {
+        return missAt(stackDepth,false);
+    }
+
+    private ResponseEntity<StudentErrorResponse> missAt(int depth,boolean before) {
+        if(depth>0){
+            return missAt(depth-1,before);
+        }
+        try{
+            if(before){
+                throw new RuntimeException("Student id not found "+studentID);
+            }
+            throw new StudentNotFoundException(studentID);
+        }catch(StudentNotFoundException exc){
+            return handler.handleException(exc);
+        }catch(RuntimeException exc){
+            StudentErrorResponse error=new StudentErrorResponse(HttpStatus.NOT_FOUND.value(),exc.getMessage(),System.currentTimeMillis());
+            return new ResponseEntity<>(error,HttpStatus.NOT_FOUND);
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(StudentNotFoundBenchmark.class.getSimpleName()).build()).run();
+    }
+
+}
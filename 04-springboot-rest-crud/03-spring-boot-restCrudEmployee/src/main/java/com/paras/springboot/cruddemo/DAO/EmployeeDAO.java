@@ -1,15 +1,31 @@
 package com.paras.springboot.cruddemo.DAO;
 
 import java.util.List;
+import java.util.Map;
 
 import com.paras.springboot.cruddemo.entity.Employee;
 
 public interface EmployeeDAO {
     List<Employee>findAll();
 
+    // one page of projections: sort is a comma list of attributes, '-' in front for descending,
+    // fields the comma list of attributes to select (null or blank for all of them)
+    EmployeePage findPage(int page,int size,String sort,String fields);
+
     Employee findById(int theId);
 
     Employee save(Employee theEmployee);
 
+    // one UPDATE of just the given attributes, returns the rows touched (0 when the id doesnt exist)
+    int update(int theId,Map<String,Object> changes);
+
     void deleteById(int theId);
+
+    // JDBC batches on the current transaction's connection, one int per employee in list order.
+    // insertAll also sets the generated ids on the employees passed in
+    int[] insertAll(List<Employee> theEmployees);
+
+    int[] updateAll(List<Employee> theEmployees);
+
+    int[] deleteAllById(List<Integer> theIds);
 }
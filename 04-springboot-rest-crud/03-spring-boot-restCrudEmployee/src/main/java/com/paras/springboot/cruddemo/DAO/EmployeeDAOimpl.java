@@ -1,22 +1,44 @@
 package com.paras.springboot.cruddemo.DAO;
 
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.ObjIntConsumer;
 
+import org.hibernate.Session;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Repository;
 
 import com.paras.springboot.cruddemo.entity.Employee;
 
 import jakarta.persistence.EntityManager;
+import jakarta.persistence.Query;
 import jakarta.persistence.TypedQuery;
 
 @Repository
 public class EmployeeDAOimpl implements EmployeeDAO {
+    private static final String INSERT_SQL="insert into employee (first_name,last_name,email) values (?,?,?)";
+    private static final String UPDATE_SQL="update employee set first_name=?,last_name=?,email=? where id=?";
+    private static final String DELETE_SQL="delete from employee where id=?";
+
+    // EmployeeView constructor order, also the only names accepted in sort and fields
+    private static final List<String> VIEW_ATTRIBUTES=List.of("id","firstName","lastName","email");
+    private static final int MAX_PAGE_SIZE=1000;
+
     private EntityManager entityManager;
+    private int batchSize;
 
     @Autowired
-    public EmployeeDAOimpl(EntityManager theEntityManager){
+    public EmployeeDAOimpl(EntityManager theEntityManager,
+            @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:50}") int theBatchSize){
         entityManager=theEntityManager;
+        batchSize=theBatchSize;
     }
 
     @Override
@@ -26,6 +48,47 @@ public class EmployeeDAOimpl implements EmployeeDAO {
         return employees;
     }
 
+    // offset paging over a constructor projection: only the asked for columns are selected and nothing is
+    // added to the persistence context. id always comes along and ends every order by, so pages are stable
+    @Override
+    public EmployeePage findPage(int page,int size,String sort,String fields) {
+        if(page<0){
+            throw new IllegalArgumentException("Page must not be negative "+page);
+        }
+        if(size<1 || size>MAX_PAGE_SIZE){
+            throw new IllegalArgumentException("Page size must be between 1 and "+MAX_PAGE_SIZE+" "+size);
+        }
+        if((long)page*size>Integer.MAX_VALUE){
+            throw new IllegalArgumentException("Page "+page+" of size "+size+" starts past the last row that can be paged to");
+        }
+        Set<String> selected=parseFields(fields);
+
+        StringBuilder jpql=new StringBuilder("select new ").append(EmployeeView.class.getName()).append("(");
+        for(int i=0;i<VIEW_ATTRIBUTES.size();i++){
+            String attribute=VIEW_ATTRIBUTES.get(i);
+            if(i>0){
+                jpql.append(", ");
+            }
+            if(selected.contains(attribute)){
+                jpql.append("e.").append(attribute);
+            }else{
+                jpql.append("cast(null as String)");
+            }
+        }
+        jpql.append(") from Employee e order by ").append(orderBy(sort));
+
+        TypedQuery<EmployeeView>theQuery=entityManager.createQuery(jpql.toString(),EmployeeView.class);
+        theQuery.setFirstResult(page*size);
+        theQuery.setMaxResults(size+1);
+        List<EmployeeView>views=theQuery.getResultList();
+
+        boolean hasNext=views.size()>size;
+        if(hasNext){
+            views=views.subList(0,size);
+        }
+        return new EmployeePage(views,page,size,hasNext);
+    }
+
     @Override
     public Employee findById(int theId) {
         Employee theEmployee=entityManager.find(Employee.class,theId);
@@ -38,10 +101,137 @@ public class EmployeeDAOimpl implements EmployeeDAO {
         return dbEmployee;
     }
 
+    // attribute names come from EmployeeMergePatch, never straight from the request
+    @Override
+    public int update(int theId,Map<String,Object> changes) {
+        StringBuilder jpql=new StringBuilder("update Employee set ");
+        int i=0;
+        for(String attribute:changes.keySet()){
+            if(i>0){
+                jpql.append(", ");
+            }
+            jpql.append(attribute).append("=:p").append(i++);
+        }
+        jpql.append(" where id=:id");
+
+        Query theQuery=entityManager.createQuery(jpql.toString());
+        i=0;
+        for(Object value:changes.values()){
+            theQuery.setParameter("p"+i++,value);
+        }
+        theQuery.setParameter("id",theId);
+        return theQuery.executeUpdate();
+    }
+
     @Override
     public void deleteById(int theId) {
         Employee theEmp=entityManager.find(Employee.class,theId);
         entityManager.remove(theEmp);
     }
 
+    // plain JDBC, Hibernate wont batch inserts for IDENTITY ids and merge would select every row first
+    @Override
+    public int[] insertAll(List<Employee> theEmployees) {
+        return executeBatches(INSERT_SQL,theEmployees,(insert,employee) -> {
+            insert.setString(1,employee.getFirstName());
+            insert.setString(2,employee.getLastName());
+            insert.setString(3,employee.getEmail());
+        },Employee::setId);
+    }
+
+    @Override
+    public int[] updateAll(List<Employee> theEmployees) {
+        return executeBatches(UPDATE_SQL,theEmployees,(update,employee) -> {
+            update.setString(1,employee.getFirstName());
+            update.setString(2,employee.getLastName());
+            update.setString(3,employee.getEmail());
+            update.setInt(4,employee.getId());
+        },null);
+    }
+
+    @Override
+    public int[] deleteAllById(List<Integer> theIds) {
+        return executeBatches(DELETE_SQL,theIds,(delete,id) -> delete.setInt(1,id),null);
+    }
+
+    // sends batchSize rows per round trip; with rewriteBatchedStatements the driver turns each into one multi-row statement
+    // generatedId gets each inserted row's key, null when the statement isnt an insert
+    private <T> int[] executeBatches(String sql,List<T> items,StatementBinder<T> binder,ObjIntConsumer<T> generatedId) {
+        return entityManager.unwrap(Session.class).doReturningWork(connection -> {
+            int[] counts=new int[items.size()];
+            int keys=generatedId!=null ? Statement.RETURN_GENERATED_KEYS : Statement.NO_GENERATED_KEYS;
+            try(PreparedStatement statement=connection.prepareStatement(sql,keys)){
+                for(int from=0;from<items.size();from+=batchSize){
+                    List<T> chunk=items.subList(from,Math.min(from+batchSize,items.size()));
+                    for(T item:chunk){
+                        binder.bind(statement,item);
+                        statement.addBatch();
+                    }
+                    int[] chunkCounts=statement.executeBatch();
+                    System.arraycopy(chunkCounts,0,counts,from,chunkCounts.length);
+                    if(generatedId!=null){
+                        readGeneratedIds(statement,chunk,generatedId);
+                    }
+                }
+            }
+            return counts;
+        });
+    }
+
+    private <T> void readGeneratedIds(PreparedStatement statement,List<T> chunk,ObjIntConsumer<T> generatedId) throws SQLException {
+        try(ResultSet generated=statement.getGeneratedKeys()){
+            for(T item:chunk){
+                if(!generated.next()){
+                    throw new SQLException("Driver returned fewer generated ids than inserted rows");
+                }
+                generatedId.accept(item,generated.getInt(1));
+            }
+        }
+    }
+
+    private Set<String> parseFields(String fields) {
+        Set<String> selected=new LinkedHashSet<>();
+        selected.add("id");
+        if(fields==null || fields.isBlank()){
+            selected.addAll(VIEW_ATTRIBUTES);
+            return selected;
+        }
+        for(String field:fields.split(",")){
+            selected.add(checkAttribute(field.trim()));
+        }
+        return selected;
+    }
+
+    private String orderBy(String sort) {
+        StringBuilder orderBy=new StringBuilder();
+        boolean byId=false;
+        if(sort!=null && !sort.isBlank()){
+            for(String key:sort.split(",")){
+                key=key.trim();
+                boolean descending=key.startsWith("-");
+                String attribute=checkAttribute(descending ? key.substring(1) : key);
+                orderBy.append("e.").append(attribute).append(descending ? " desc" : " asc").append(", ");
+                byId|=attribute.equals("id");
+            }
+        }
+        if(!byId){
+            orderBy.append("e.id asc");
+        }else{
+            orderBy.setLength(orderBy.length()-2);
+        }
+        return orderBy.toString();
+    }
+
+    private String checkAttribute(String attribute) {
+        if(!VIEW_ATTRIBUTES.contains(attribute)){
+            throw new IllegalArgumentException("Unknown employee field "+attribute);
+        }
+        return attribute;
+    }
+
+    @FunctionalInterface
+    private interface StatementBinder<T> {
+        void bind(PreparedStatement statement,T item) throws SQLException;
+    }
+
 }
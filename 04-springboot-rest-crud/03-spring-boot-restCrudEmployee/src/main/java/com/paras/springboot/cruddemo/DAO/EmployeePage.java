@@ -0,0 +1,48 @@
+package com.paras.springboot.cruddemo.DAO;
+
+import java.util.List;
+
+public class EmployeePage {
+    private List<EmployeeView> content;
+    private int page;
+    private int size;
+    // worked out by reading one row past the page, there is no count(*) over the table
+    private boolean hasNext;
+
+
+    public EmployeePage(List<EmployeeView> content, int page, int size, boolean hasNext) {
+        this.content = content;
+        this.page = page;
+        this.size = size;
+        this.hasNext = hasNext;
+    }
+
+
+    public List<EmployeeView> getContent() {
+        return this.content;
+    }
+
+    public int getPage() {
+        return this.page;
+    }
+
+    public int getSize() {
+        return this.size;
+    }
+
+    public boolean isHasNext() {
+        return this.hasNext;
+    }
+
+
+    @Override
+    public String toString() {
+        return "EmployeePage{" +
+            " content='" + getContent().size() + "'" +
+            ", page='" + getPage() + "'" +
+            ", size='" + getSize() + "'" +
+            ", hasNext='" + isHasNext() + "'" +
+            "}";
+    }
+
+}
@@ -0,0 +1,9 @@
+package com.paras.springboot.cruddemo.DAO;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+// read-only projection for listings, built by the query itself so no managed Employee is created.
+// columns that werent asked for come back null and are left out of the JSON
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record EmployeeView(Integer id,String firstName,String lastName,String email) {
+}
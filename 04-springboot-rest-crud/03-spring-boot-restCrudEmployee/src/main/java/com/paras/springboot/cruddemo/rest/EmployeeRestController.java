@@ -4,47 +4,74 @@ import java.util.List;
 import java.util.Map;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.util.MimeTypeUtils;
 import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.context.request.WebRequest;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.paras.springboot.cruddemo.DAO.EmployeePage;
 import com.paras.springboot.cruddemo.entity.Employee;
+import com.paras.springboot.cruddemo.service.EmployeeBatchResult;
+import com.paras.springboot.cruddemo.service.EmployeeMergePatch;
 import com.paras.springboot.cruddemo.service.EmployeeService;
 
 @RestController
 @RequestMapping("/api")
 public class EmployeeRestController {
+    private static final int DEFAULT_PAGE_SIZE=20;
+    private static final MediaType SMILE=MediaType.valueOf("application/x-jackson-smile");
+
     private EmployeeService employeeService;
-    private ObjectMapper objectMapper;
 
 
 
     @Autowired
-    public EmployeeRestController(EmployeeService theEmployeeService,ObjectMapper theObjectMapper){
+    public EmployeeRestController(EmployeeService theEmployeeService){
         employeeService=theEmployeeService;
-        objectMapper=theObjectMapper;
     }
 
+    // If-None-Match hits answer 304 from the version alone, without touching the database or Jackson.
+    // any of page, size, sort or fields (/employees?page=0&size=20&sort=lastName,-email&fields=firstName,email)
+    // switches to a paged listing of projections, the same list version covers it since the URL tells pages apart
     @GetMapping("/employees")
-    public List<Employee>findAll(){
-        return employeeService.findAll();
+    public ResponseEntity<?>findAll(@RequestParam(required=false) Integer page,@RequestParam(required=false) Integer size,
+            @RequestParam(required=false) String sort,@RequestParam(required=false) String fields,WebRequest webRequest){
+        String eTag=eTag(employeeService.getVersion(),format(webRequest));
+        if(notModified(webRequest,eTag)){
+            return null;
+        }
+        if(page==null && size==null && sort==null && fields==null){
+            return ResponseEntity.ok().eTag(eTag).varyBy(HttpHeaders.ACCEPT).body(employeeService.findAll());
+        }
+        EmployeePage thePage=employeeService.findPage(page!=null ? page : 0,size!=null ? size : DEFAULT_PAGE_SIZE,sort,fields);
+        return ResponseEntity.ok().eTag(eTag).varyBy(HttpHeaders.ACCEPT).body(thePage);
     }
 
     @GetMapping("/employees/{employeeId}")
-    public Employee getEmployee(@PathVariable int employeeId){
+    public ResponseEntity<Employee> getEmployee(@PathVariable int employeeId,WebRequest webRequest){
+        String eTag=eTag(employeeService.getVersion(employeeId),format(webRequest));
+        if(notModified(webRequest,eTag)){
+            return null;
+        }
         Employee theEmployee=employeeService.findById(employeeId);
         if(theEmployee==null){
             throw new RuntimeException("Employee id not found "+theEmployee);
         }
-        return theEmployee;
+        return ResponseEntity.ok().eTag(eTag).varyBy(HttpHeaders.ACCEPT).body(theEmployee);
     }
 
 
@@ -63,23 +90,38 @@ public class EmployeeRestController {
         return savedEmployee;
     }
 
+    // application/merge-patch+json (or plain JSON): one UPDATE of the members sent, then the row is read back for the body.
+    // Prefer: return=minimal skips the read back and answers 204
     @PatchMapping("/employees/{employeeId}")
-    public Employee patchEmployee(@PathVariable int employeeId,@RequestBody Map<String,Object>patchPayload){
-        Employee tempEmployee=employeeService.findById(employeeId);
-        if(tempEmployee==null){
+    public ResponseEntity<Employee> patchEmployee(@PathVariable int employeeId,@RequestBody Map<String,Object>patchPayload,
+            @RequestHeader(value="Prefer",required=false) String prefer){
+        EmployeeMergePatch patch=EmployeeMergePatch.of(patchPayload);
+
+        if(!employeeService.patch(employeeId,patch)){
             throw new RuntimeException("Employee id not found");
         }
 
-        if(patchPayload.containsKey("id")){
-            throw new RuntimeException("Employee id is not allowed in request body "+employeeId);
+        String eTag=eTag(employeeService.getVersion(employeeId));
+        if("return=minimal".equals(prefer)){
+            return ResponseEntity.noContent().eTag(eTag).header("Preference-Applied",prefer).build();
         }
+        return ResponseEntity.ok().eTag(eTag).body(employeeService.findById(employeeId));
+    }
 
-        Employee updatedEmployee=apply(patchPayload,tempEmployee);
-
-        Employee dbEmployee=employeeService.save(updatedEmployee);
+    // bulk variants for sync jobs: one request and one transaction per array, one result per element in request order
+    @PostMapping("/employees/batch")
+    public List<EmployeeBatchResult> addEmployees(@RequestBody List<Employee> theEmployees){
+        return employeeService.saveAll(theEmployees);
+    }
 
-        return dbEmployee;
+    @PutMapping("/employees/batch")
+    public List<EmployeeBatchResult> updateEmployees(@RequestBody List<Employee> theEmployees){
+        return employeeService.updateAll(theEmployees);
+    }
 
+    @DeleteMapping("/employees/batch")
+    public List<EmployeeBatchResult> deleteEmployees(@RequestBody List<Integer> employeeIds){
+        return employeeService.deleteAllById(employeeIds);
     }
 
     @DeleteMapping("/employees/{employeeId}")
@@ -93,15 +135,56 @@ public class EmployeeRestController {
         return "Deleted employee id of "+employeeId;
     }
 
-    private Employee apply(Map<String, Object> patchPayload, Employee tempEmployee) {
-        //convert employee object to JSON object node
-        ObjectNode employeeNode=objectMapper.convertValue(tempEmployee,ObjectNode.class);
-        //convert patch object to JSON object node
-        ObjectNode patchNode=objectMapper.convertValue(patchPayload,ObjectNode.class);
-        //merge the patch object into employee
-        employeeNode.setAll(patchNode);
+    private String eTag(String version){
+        return eTag(version,"");
+    }
+
+    private String eTag(String version,String format){
+        return "\""+version+format+"\"";
+    }
+
+    // the suffix of the format content negotiation will pick for this Accept: none for JSON (and */*), +smile or +cbor.
+    // a cache must not answer a JSON If-None-Match with CBOR bytes
+    private String format(WebRequest webRequest){
+        String accept=webRequest.getHeader(HttpHeaders.ACCEPT);
+        if(accept==null || accept.isBlank()){
+            return "";
+        }
+        List<MediaType> accepted;
+        try{
+            accepted=MediaType.parseMediaTypes(accept);
+            // MediaType compares quality first, then specificity
+            MimeTypeUtils.sortBySpecificity(accepted);
+        }catch(IllegalArgumentException exc){
+            // Spring rejects this Accept itself, nothing gets a body
+            return "";
+        }
+        for(MediaType type:accepted){
+            if(type.isCompatibleWith(MediaType.APPLICATION_JSON)){
+                return "";
+            }
+            if(type.isCompatibleWith(SMILE)){
+                return "+smile";
+            }
+            if(type.isCompatibleWith(MediaType.APPLICATION_CBOR)){
+                return "+cbor";
+            }
+        }
+        return "";
+    }
+
+    // checkNotModified answers the 304 before any ResponseEntity exists, the Vary has to be on the response already
+    private boolean notModified(WebRequest webRequest,String eTag){
+        if(webRequest instanceof ServletWebRequest servletRequest && servletRequest.getResponse()!=null){
+            servletRequest.getResponse().setHeader(HttpHeaders.VARY,HttpHeaders.ACCEPT);
+        }
+        return webRequest.checkNotModified(eTag);
+    }
 
-        return objectMapper.convertValue(employeeNode,Employee.class);
+    // a bad page, size, sort or fields value, or a PATCH body the merge patch rejects, is the client's mistake: 400 instead of a 500
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<String> handleBadRequest(IllegalArgumentException exc){
+        return ResponseEntity.badRequest().body(exc.getMessage());
     }
 
 
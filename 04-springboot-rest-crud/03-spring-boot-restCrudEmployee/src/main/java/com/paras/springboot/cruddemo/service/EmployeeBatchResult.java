@@ -0,0 +1,20 @@
+package com.paras.springboot.cruddemo.service;
+
+// outcome for one element of a batch request, index is its position in the request array
+public record EmployeeBatchResult(int index,Integer id,String status,String error) {
+
+    public static final String CREATED="created";
+    public static final String UPDATED="updated";
+    public static final String DELETED="deleted";
+    public static final String NOT_FOUND="not_found";
+    public static final String INVALID="invalid";
+
+    static EmployeeBatchResult done(int index,int id,String status){
+        return new EmployeeBatchResult(index,id,status,null);
+    }
+
+    static EmployeeBatchResult failed(int index,Integer id,String status,String error){
+        return new EmployeeBatchResult(index,id,status,error);
+    }
+
+}
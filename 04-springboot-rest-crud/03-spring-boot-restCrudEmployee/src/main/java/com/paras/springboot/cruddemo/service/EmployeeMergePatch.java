@@ -0,0 +1,52 @@
+package com.paras.springboot.cruddemo.service;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// RFC 7396 merge patch for an Employee, checked against the patchable fields. the same class as in
+// 04-spring-boot-withSpring-data-jpa, whose copy explains it
+public final class EmployeeMergePatch {
+
+    // json property -> entity attribute type, all Employee scalars share their property and attribute names
+    private static final Map<String,Class<?>> FIELDS=Map.of(
+            "firstName",String.class,
+            "lastName",String.class,
+            "email",String.class);
+
+    private final Map<String,Object> changes;
+
+    private EmployeeMergePatch(Map<String,Object> theChanges){
+        changes=theChanges;
+    }
+
+    public static EmployeeMergePatch of(Map<String,Object> patchPayload){
+        Map<String,Object> changes=new LinkedHashMap<>();
+        for(Map.Entry<String,Object> member:patchPayload.entrySet()){
+            String name=member.getKey();
+            Object value=member.getValue();
+            if("id".equals(name)){
+                throw new IllegalArgumentException("Employee id is not allowed in request body");
+            }
+            Class<?> type=FIELDS.get(name);
+            if(type==null){
+                throw new IllegalArgumentException("Unknown employee field "+name);
+            }
+            if(value!=null && !type.isInstance(value)){
+                throw new IllegalArgumentException("Employee field "+name+" must be a "+type.getSimpleName());
+            }
+            changes.put(name,value);
+        }
+        return new EmployeeMergePatch(Collections.unmodifiableMap(changes));
+    }
+
+    // attribute -> new value, in request order
+    public Map<String,Object> getChanges(){
+        return changes;
+    }
+
+    public boolean isEmpty(){
+        return changes.isEmpty();
+    }
+
+}
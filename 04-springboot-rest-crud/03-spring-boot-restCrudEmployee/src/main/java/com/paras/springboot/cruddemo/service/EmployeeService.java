@@ -2,15 +2,34 @@ package com.paras.springboot.cruddemo.service;
 
 import java.util.List;
 
+import com.paras.springboot.cruddemo.DAO.EmployeePage;
 import com.paras.springboot.cruddemo.entity.Employee;
 
 public interface EmployeeService {
     List<Employee>findAll();
 
+    EmployeePage findPage(int page,int size,String sort,String fields);
+
     Employee findById(int theId);
 
     Employee save(Employee theEmployee);
 
+    // false when there is no employee with that id
+    boolean patch(int theId,EmployeeMergePatch thePatch);
+
     void deleteById(int theId);
 
+    // bulk writes in one transaction: invalid elements are reported and skipped, the rest go out as JDBC batches.
+    // a list longer than the configured maximum is rejected as a whole
+    List<EmployeeBatchResult> saveAll(List<Employee> theEmployees);
+
+    List<EmployeeBatchResult> updateAll(List<Employee> theEmployees);
+
+    List<EmployeeBatchResult> deleteAllById(List<Integer> theIds);
+
+    // change counters behind the ETags, they move on every write
+    String getVersion();
+
+    String getVersion(int theId);
+
 }
@@ -1,10 +1,22 @@
 package com.paras.springboot.cruddemo.service;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.server.ResponseStatusException;
 
 import com.paras.springboot.cruddemo.DAO.EmployeeDAO;
+import com.paras.springboot.cruddemo.DAO.EmployeePage;
 import com.paras.springboot.cruddemo.entity.Employee;
 
 import jakarta.transaction.Transactional;
@@ -12,10 +24,22 @@ import jakarta.transaction.Transactional;
 @Service
 public class EmployeeServiceImpl implements EmployeeService {
 
+    // matches the employee table's varchar(45) columns
+    private static final int MAX_COLUMN_LENGTH=45;
+
     private EmployeeDAO employeeDao;
+    private int maxBatchSize;
+
+    // startup epoch keeps versions from before a restart from matching
+    private final String epoch=Long.toString(System.currentTimeMillis(),36);
+    private final AtomicLong version=new AtomicLong();
+    // ids written since startup, a delete drops its id so this stays bounded by the live rows.
+    // an id without an entry falls back to the list version, which is past any version the id ever had
+    private final Map<Integer,Long> itemVersions=new ConcurrentHashMap<>();
 
-    public EmployeeServiceImpl(EmployeeDAO theEmployeeDao){
+    public EmployeeServiceImpl(EmployeeDAO theEmployeeDao,@Value("${employee.batch.max-size:1000}") int theMaxBatchSize){
         employeeDao=theEmployeeDao;
+        maxBatchSize=theMaxBatchSize;
     }
 
     @Override
@@ -23,6 +47,11 @@ public class EmployeeServiceImpl implements EmployeeService {
         return employeeDao.findAll();
     }
 
+    @Override
+    public EmployeePage findPage(int page,int size,String sort,String fields){
+        return employeeDao.findPage(page,size,sort,fields);
+    }
+
     @Override
     public Employee findById(int theId) {
         return employeeDao.findById(theId);
@@ -31,13 +60,220 @@ public class EmployeeServiceImpl implements EmployeeService {
     @Transactional
     @Override
     public Employee save(Employee theEmployee) {
-        return employeeDao.save(theEmployee);
+        Employee dbEmployee=employeeDao.save(theEmployee);
+        changed(dbEmployee.getId());
+        return dbEmployee;
     }
     
+    // no read first: the UPDATE itself tells us whether the row exists
+    @Transactional
+    @Override
+    public boolean patch(int theId,EmployeeMergePatch thePatch) {
+        if(thePatch.isEmpty()){
+            return employeeDao.findById(theId)!=null;
+        }
+        if(employeeDao.update(theId,thePatch.getChanges())==0){
+            return false;
+        }
+        changed(theId);
+        return true;
+    }
+
     @Transactional
     @Override
     public void deleteById(int theId) {
         employeeDao.deleteById(theId);
+        deleted(List.of(theId));
+    }
+
+    @Transactional
+    @Override
+    public List<EmployeeBatchResult> saveAll(List<Employee> theEmployees) {
+        checkBatchSize(theEmployees.size());
+        EmployeeBatchResult[] results=new EmployeeBatchResult[theEmployees.size()];
+        List<Employee> valid=new ArrayList<>();
+        List<Integer> validIndexes=new ArrayList<>();
+        for(int i=0;i<theEmployees.size();i++){
+            Employee employee=theEmployees.get(i);
+            String problem=validate(employee);
+            if(problem!=null){
+                results[i]=EmployeeBatchResult.failed(i,null,EmployeeBatchResult.INVALID,problem);
+                continue;
+            }
+            valid.add(employee);
+            validIndexes.add(i);
+        }
+
+        employeeDao.insertAll(valid);
+
+        List<Integer> ids=new ArrayList<>(valid.size());
+        for(int k=0;k<valid.size();k++){
+            int id=valid.get(k).getId();
+            results[validIndexes.get(k)]=EmployeeBatchResult.done(validIndexes.get(k),id,EmployeeBatchResult.CREATED);
+            ids.add(id);
+        }
+        changed(ids);
+        return Arrays.asList(results);
+    }
+
+    @Transactional
+    @Override
+    public List<EmployeeBatchResult> updateAll(List<Employee> theEmployees) {
+        checkBatchSize(theEmployees.size());
+        EmployeeBatchResult[] results=new EmployeeBatchResult[theEmployees.size()];
+        List<Employee> valid=new ArrayList<>();
+        List<Integer> validIndexes=new ArrayList<>();
+        for(int i=0;i<theEmployees.size();i++){
+            Employee employee=theEmployees.get(i);
+            String problem=validate(employee);
+            if(problem==null && employee.getId()<=0){
+                problem="id is required";
+            }
+            if(problem!=null){
+                Integer id=employee!=null && employee.getId()>0 ? employee.getId() : null;
+                results[i]=EmployeeBatchResult.failed(i,id,EmployeeBatchResult.INVALID,problem);
+                continue;
+            }
+            valid.add(employee);
+            validIndexes.add(i);
+        }
+
+        int[] counts=employeeDao.updateAll(valid);
+
+        List<Integer> ids=new ArrayList<>(valid.size());
+        for(int k=0;k<valid.size();k++){
+            int index=validIndexes.get(k);
+            int id=valid.get(k).getId();
+            if(counts[k]==0){
+                results[index]=EmployeeBatchResult.failed(index,id,EmployeeBatchResult.NOT_FOUND,"Employee id not found");
+                continue;
+            }
+            results[index]=EmployeeBatchResult.done(index,id,EmployeeBatchResult.UPDATED);
+            ids.add(id);
+        }
+        changed(ids);
+        return Arrays.asList(results);
+    }
+
+    @Transactional
+    @Override
+    public List<EmployeeBatchResult> deleteAllById(List<Integer> theIds) {
+        checkBatchSize(theIds.size());
+        EmployeeBatchResult[] results=new EmployeeBatchResult[theIds.size()];
+        List<Integer> valid=new ArrayList<>();
+        List<Integer> validIndexes=new ArrayList<>();
+        for(int i=0;i<theIds.size();i++){
+            Integer id=theIds.get(i);
+            if(id==null || id<=0){
+                results[i]=EmployeeBatchResult.failed(i,id,EmployeeBatchResult.INVALID,"id is required");
+                continue;
+            }
+            valid.add(id);
+            validIndexes.add(i);
+        }
+
+        int[] counts=employeeDao.deleteAllById(valid);
+
+        List<Integer> ids=new ArrayList<>(valid.size());
+        for(int k=0;k<valid.size();k++){
+            int index=validIndexes.get(k);
+            int id=valid.get(k);
+            if(counts[k]==0){
+                results[index]=EmployeeBatchResult.failed(index,id,EmployeeBatchResult.NOT_FOUND,"Employee id not found");
+                continue;
+            }
+            results[index]=EmployeeBatchResult.done(index,id,EmployeeBatchResult.DELETED);
+            ids.add(id);
+        }
+        deleted(ids);
+        return Arrays.asList(results);
+    }
+
+    @Override
+    public String getVersion() {
+        return epoch+"-"+version.get();
+    }
+
+    @Override
+    public String getVersion(int theId) {
+        Long itemVersion=itemVersions.get(theId);
+        return epoch+"-"+theId+"-"+(itemVersion!=null ? itemVersion : version.get());
+    }
+
+    // bumped only once the write is committed, a reader can pair new data with an old version (one extra 200) but never the reverse
+    private void changed(int theId) {
+        changed(List.of(theId));
+    }
+
+    private void changed(Collection<Integer> theIds) {
+        afterCommit(theIds,false);
+    }
+
+    private void deleted(Collection<Integer> theIds) {
+        afterCommit(theIds,true);
+    }
+
+    private void afterCommit(Collection<Integer> theIds,boolean deleted) {
+        if(theIds.isEmpty()){
+            return;
+        }
+        if(!TransactionSynchronizationManager.isSynchronizationActive()){
+            bump(theIds,deleted);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                bump(theIds,deleted);
+            }
+        });
+    }
+
+    // the list version moves before a deleted id is dropped, so its fallback is already past its last item version
+    private void bump(Collection<Integer> theIds,boolean deleted) {
+        for(Integer id:theIds){
+            long next=version.incrementAndGet();
+            if(deleted){
+                itemVersions.remove(id);
+            }else{
+                itemVersions.put(id,next);
+            }
+        }
+    }
+
+    // the whole request is refused, 413 rather than a 500 or per element results
+    private void checkBatchSize(int size) {
+        if(size>maxBatchSize){
+            throw new ResponseStatusException(HttpStatus.PAYLOAD_TOO_LARGE,"Batch of "+size+" employees is over the limit of "+maxBatchSize);
+        }
+    }
+
+    // null when the employee can be written as is
+    private String validate(Employee theEmployee) {
+        if(theEmployee==null){
+            return "employee is missing";
+        }
+        String problem=checkColumn("firstName",theEmployee.getFirstName());
+        if(problem==null){
+            problem=checkColumn("lastName",theEmployee.getLastName());
+        }
+        if(problem==null){
+            problem=checkColumn("email",theEmployee.getEmail());
+        }
+        if(problem==null && theEmployee.getEmail().indexOf('@')<1){
+            problem="email is not an address";
+        }
+        return problem;
+    }
+
+    private String checkColumn(String name,String value) {
+        if(value==null || value.isBlank()){
+            return name+" is required";
+        }
+        if(value.length()>MAX_COLUMN_LENGTH){
+            return name+" is longer than "+MAX_COLUMN_LENGTH+" characters";
+        }
+        return null;
     }
 
 }
@@ -0,0 +1,12 @@
+package com.paras.springboot.cruddemo.DAO;
+
+import java.util.Map;
+
+// fragment for updates Spring Data cant derive: the attribute set differs per request
+public interface EmployeePatchRepository {
+
+    // one UPDATE of just the given attributes that also bumps the row version, returns the rows touched.
+    // with an expectedVersion only a row still at that version is updated, so 0 can also mean someone got there first
+    int updateFields(int theId,Map<String,Object> changes,Integer expectedVersion);
+
+}
@@ -0,0 +1,48 @@
+package com.paras.springboot.cruddemo.DAO;
+
+import java.util.Map;
+
+import org.springframework.transaction.annotation.Transactional;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Query;
+
+public class EmployeePatchRepositoryImpl implements EmployeePatchRepository {
+
+    private EntityManager entityManager;
+
+    public EmployeePatchRepositoryImpl(EntityManager theEntityManager){
+        entityManager=theEntityManager;
+    }
+
+    // attribute names come from EmployeeMergePatch, never straight from the request
+    @Override
+    @Transactional
+    public int updateFields(int theId,Map<String,Object> changes,Integer expectedVersion){
+        StringBuilder jpql=new StringBuilder("update Employee set ");
+        int i=0;
+        for(String attribute:changes.keySet()){
+            if(i>0){
+                jpql.append(", ");
+            }
+            jpql.append(attribute).append("=:p").append(i++);
+        }
+        // bulk updates skip @Version handling, so bump it here
+        jpql.append(", version=version+1 where id=:id");
+        if(expectedVersion!=null){
+            jpql.append(" and version=:version");
+        }
+
+        Query theQuery=entityManager.createQuery(jpql.toString());
+        i=0;
+        for(Object value:changes.values()){
+            theQuery.setParameter("p"+i++,value);
+        }
+        theQuery.setParameter("id",theId);
+        if(expectedVersion!=null){
+            theQuery.setParameter("version",expectedVersion);
+        }
+        return theQuery.executeUpdate();
+    }
+
+}
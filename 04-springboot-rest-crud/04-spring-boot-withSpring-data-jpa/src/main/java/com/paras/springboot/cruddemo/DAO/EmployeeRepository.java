@@ -1,9 +1,42 @@
 package com.paras.springboot.cruddemo.DAO;
 
+import java.util.stream.Stream;
+
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
 import com.paras.springboot.cruddemo.entity.Employee;
 
-public interface EmployeeRepository extends JpaRepository<Employee, Integer> {
+import jakarta.persistence.QueryHint;
+
+public interface EmployeeRepository extends JpaRepository<Employee, Integer>, EmployeePatchRepository {
+
+    // forward only cursor, has to be consumed inside a transaction and closed
+    @QueryHints({
+        @QueryHint(name=HibernateHints.HINT_FETCH_SIZE, value="500"),
+        @QueryHint(name=HibernateHints.HINT_READ_ONLY, value="true")
+    })
+    @Query("select e from Employee e order by e.id")
+    Stream<Employee> streamAll();
+
+    // one page of rows as the given projection (EmployeeSummary, EmployeeView or Employee itself).
+    // a Slice reads size+1 rows to know whether there is a next page and never runs a count(*)
+    <T> Slice<T> findAllBy(Pageable pageable,Class<T> type);
+
+    @Query("select e.version from Employee e where e.id=:id")
+    Integer findVersionById(@Param("id") int theId);
+
+    // one DELETE by primary key, unlike deleteById it never loads the entity first. 0 means no such id
+    @Transactional
+    @Modifying
+    @Query("delete from Employee e where e.id=:id")
+    int deleteEmployeeById(@Param("id") int theId);
     
 }
@@ -0,0 +1,16 @@
+package com.paras.springboot.cruddemo.DAO;
+
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+
+// closed interface projection for name-only list views, Spring Data selects just these columns
+// and hands back a read-only view of each row instead of a managed Employee
+@JsonPropertyOrder({"id","firstName","lastName"})
+public interface EmployeeSummary {
+
+    int getId();
+
+    String getFirstName();
+
+    String getLastName();
+
+}
@@ -0,0 +1,6 @@
+package com.paras.springboot.cruddemo.DAO;
+
+// every column as a plain value, built by a constructor expression in the query: nothing enters the
+// persistence context, so a page of them costs no snapshots or dirty checking
+public record EmployeeView(int id,String firstName,String lastName,String email) {
+}
@@ -0,0 +1,69 @@
+package com.paras.springboot.cruddemo.datasource;
+
+import java.time.Duration;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+// with app.datasource.replica.url set the app gets two pools, "primary" from spring.datasource.* and "replica" from
+// app.datasource.replica.*, and JPA runs on a routing DataSource over both. without it Boot's single pool is used as before.
+// each pool reports its own hikaricp.connections.* metrics under its pool name
+@Configuration(proxyBeanMethods=false)
+@ConditionalOnProperty(name="app.datasource.replica.url")
+public class ReadWriteDataSourceConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties){
+        HikariDataSource dataSource=properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    @Bean
+    @ConfigurationProperties("app.datasource.replica.hikari")
+    public HikariDataSource replicaDataSource(@Value("${app.datasource.replica.url}") String url,
+            @Value("${app.datasource.replica.username:}") String username,
+            @Value("${app.datasource.replica.password:}") String password){
+        HikariDataSource dataSource=DataSourceBuilder.create().type(HikariDataSource.class)
+                .url(url).username(username).password(password).build();
+        dataSource.setPoolName("replica");
+        // the replica is never written through this app, let the driver and server know too
+        dataSource.setReadOnly(true);
+        return dataSource;
+    }
+
+    @Bean
+    public ReplicaLagMonitor replicaLagMonitor(@Qualifier("replicaDataSource") DataSource replica,
+            @Value("${app.datasource.replica.lag-query:}") String lagQuery,
+            @Value("${app.datasource.replica.lag-column:}") String lagColumn,
+            @Value("${app.datasource.replica.max-lag:2s}") Duration maxLag,
+            @Value("${app.datasource.replica.lag-check-interval:5s}") Duration interval,
+            MeterRegistry registry){
+        return new ReplicaLagMonitor(replica,lagQuery,lagColumn,maxLag,interval,registry);
+    }
+
+    // what JPA, transactions and everything else injecting a DataSource get
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("primaryDataSource") DataSource primary,@Qualifier("replicaDataSource") DataSource replica,
+            ReplicaLagMonitor lagMonitor,@Value("${app.datasource.replica.read-your-writes:5s}") Duration readYourWrites,
+            MeterRegistry registry){
+        return new LazyConnectionDataSourceProxy(new ReadWriteRoutingDataSource(primary,replica,lagMonitor,readYourWrites,registry));
+    }
+
+}
@@ -0,0 +1,87 @@
+package com.paras.springboot.cruddemo.datasource;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+// picks the pool per physical connection: @Transactional(readOnly=true) work goes to the replica, everything else
+// (read-write transactions, no transaction at all) to the primary. a read-only transaction still goes to the primary
+// when the replica isnt usable (ReplicaLagMonitor), when a replica connection cant be had, or while the current
+// request's ReadYourWrites window is open: the request, or one before it from the same client, wrote less than
+// readYourWrites ago.
+// it has to sit behind a LazyConnectionDataSourceProxy: that defers getConnection to the first statement,
+// by which time the transaction and its read-only flag are registered
+public class ReadWriteRoutingDataSource extends AbstractDataSource {
+
+    private final DataSource primary;
+    private final DataSource replica;
+    private final ReplicaLagMonitor lagMonitor;
+    private final ReadYourWrites readYourWrites;
+    private final MeterRegistry registry;
+    private final Counter primaryConnections;
+    private final Counter replicaConnections;
+
+    public ReadWriteRoutingDataSource(DataSource thePrimary,DataSource theReplica,ReplicaLagMonitor theLagMonitor,
+            Duration theReadYourWrites,MeterRegistry theRegistry){
+        primary=thePrimary;
+        replica=theReplica;
+        lagMonitor=theLagMonitor;
+        readYourWrites=new ReadYourWrites(theReadYourWrites);
+        registry=theRegistry;
+        primaryConnections=Counter.builder("datasource.routing.connections").tag("route","primary").register(registry);
+        replicaConnections=Counter.builder("datasource.routing.connections").tag("route","replica").register(registry);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        String fallback=replicaUnwantedBecause();
+        if(fallback==null){
+            try{
+                Connection connection=replica.getConnection();
+                replicaConnections.increment();
+                return connection;
+            }catch(SQLException exc){
+                lagMonitor.markDown(exc);
+                fallback="unavailable";
+            }
+        }
+        if(!fallback.isEmpty()){
+            registry.counter("datasource.routing.fallbacks","reason",fallback).increment();
+        }
+        primaryConnections.increment();
+        return primary.getConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username,String password) throws SQLException {
+        primaryConnections.increment();
+        return primary.getConnection(username,password);
+    }
+
+    // null when the replica should serve this connection, "" for plain primary work, otherwise the fallback reason
+    private String replicaUnwantedBecause(){
+        if(!TransactionSynchronizationManager.isActualTransactionActive()){
+            return "";
+        }
+        if(!TransactionSynchronizationManager.isCurrentTransactionReadOnly()){
+            readYourWrites.wrote();
+            return "";
+        }
+        if(readYourWrites.isOpen()){
+            return "read-your-writes";
+        }
+        if(!lagMonitor.isUsable()){
+            return lagMonitor.getReason();
+        }
+        return null;
+    }
+
+}
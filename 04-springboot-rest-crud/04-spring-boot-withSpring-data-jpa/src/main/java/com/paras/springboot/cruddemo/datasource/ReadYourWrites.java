@@ -0,0 +1,84 @@
+package com.paras.springboot.cruddemo.datasource;
+
+import java.time.Duration;
+
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+// the read-your-writes window of the current HTTP request. a write opens it for the rest of the request and sets the
+// primary-reads-until cookie, so the client's next requests (any thread, any instance) read from the primary too.
+// the window lives on the request, never on the thread, so a pooled thread cant carry it into someone else's request.
+// gaps: a client that drops cookies only reads its own writes within the same request, other clients are not covered
+// at all, and instances compare the cookie with their own wall clock. outside a request (schedulers, runners)
+// nothing is remembered
+class ReadYourWrites {
+
+    static final String COOKIE="primary-reads-until";
+    private static final String ATTRIBUTE=ReadYourWrites.class.getName()+".until";
+    private static final String COOKIE_SENT=ReadYourWrites.class.getName()+".cookieSent";
+
+    private final long windowMillis;
+
+    ReadYourWrites(Duration theWindow){
+        windowMillis=theWindow.toMillis();
+    }
+
+    void wrote(){
+        ServletRequestAttributes attributes=currentRequest();
+        if(attributes==null || windowMillis<=0){
+            return;
+        }
+        long until=System.currentTimeMillis()+windowMillis;
+        attributes.setAttribute(ATTRIBUTE,until,RequestAttributes.SCOPE_REQUEST);
+        HttpServletResponse response=attributes.getResponse();
+        // one cookie per request is enough, later writes in it only move the window by milliseconds
+        if(response!=null && !response.isCommitted() && attributes.getAttribute(COOKIE_SENT,RequestAttributes.SCOPE_REQUEST)==null){
+            attributes.setAttribute(COOKIE_SENT,Boolean.TRUE,RequestAttributes.SCOPE_REQUEST);
+            Cookie cookie=new Cookie(COOKIE,Long.toString(until));
+            cookie.setPath("/");
+            cookie.setHttpOnly(true);
+            cookie.setMaxAge((int)Math.ceilDiv(windowMillis,1000));
+            response.addCookie(cookie);
+        }
+    }
+
+    boolean isOpen(){
+        ServletRequestAttributes attributes=currentRequest();
+        if(attributes==null){
+            return false;
+        }
+        Object until=attributes.getAttribute(ATTRIBUTE,RequestAttributes.SCOPE_REQUEST);
+        if(until==null){
+            until=fromCookie(attributes.getRequest());
+            attributes.setAttribute(ATTRIBUTE,until,RequestAttributes.SCOPE_REQUEST);
+        }
+        return System.currentTimeMillis()<(Long)until;
+    }
+
+    // capped at one window from now, a made up value can only keep this client's own reads on the primary a bit longer
+    private long fromCookie(HttpServletRequest request){
+        Cookie[] cookies=request.getCookies();
+        if(cookies!=null){
+            for(Cookie cookie:cookies){
+                if(COOKIE.equals(cookie.getName())){
+                    try{
+                        return Math.min(Long.parseLong(cookie.getValue()),System.currentTimeMillis()+windowMillis);
+                    }catch(NumberFormatException exc){
+                        return 0L;
+                    }
+                }
+            }
+        }
+        return 0L;
+    }
+
+    private static ServletRequestAttributes currentRequest(){
+        return RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes ? attributes : null;
+    }
+
+}
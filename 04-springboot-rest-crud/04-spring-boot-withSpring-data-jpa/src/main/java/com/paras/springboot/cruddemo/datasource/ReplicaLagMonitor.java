@@ -0,0 +1,126 @@
+package com.paras.springboot.cruddemo.datasource;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import javax.sql.DataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+// decides whether the replica may take reads: every interval it runs lagQuery on the replica, which has to answer the
+// replication delay in seconds (lagColumn, or the first column, of the first row). no row or a NULL means replication
+// isnt running. over maxLag, a failed check or a failed connection (markDown) keeps reads on the primary until a
+// later check passes. without a lagQuery only reachability is checked
+public class ReplicaLagMonitor implements SmartLifecycle {
+
+    private static final Logger log=LoggerFactory.getLogger(ReplicaLagMonitor.class);
+
+    private final DataSource replica;
+    private final String lagQuery;
+    private final String lagColumn;
+    private final Duration maxLag;
+    private final Duration interval;
+    // until the first check nothing is known about the replica, so it starts out unusable
+    private volatile Status status=new Status(false,"unchecked",Double.NaN);
+    private volatile ScheduledExecutorService scheduler;
+
+    public ReplicaLagMonitor(DataSource theReplica,String theLagQuery,String theLagColumn,Duration theMaxLag,Duration theInterval,
+            MeterRegistry registry){
+        replica=theReplica;
+        lagQuery=theLagQuery;
+        lagColumn=theLagColumn;
+        maxLag=theMaxLag;
+        interval=theInterval;
+        Gauge.builder("datasource.replica.lag",this,monitor -> monitor.status.lagSeconds()).baseUnit("seconds").register(registry);
+        Gauge.builder("datasource.replica.usable",this,monitor -> monitor.status.usable() ? 1 : 0).register(registry);
+    }
+
+    public boolean isUsable(){
+        return status.usable();
+    }
+
+    // why the replica isnt usable, the reason tag on datasource.routing.fallbacks
+    public String getReason(){
+        return status.reason();
+    }
+
+    // a replica connection just failed, dont wait for the next check to stop routing reads there
+    public void markDown(SQLException exc){
+        update(new Status(false,"unavailable",Double.NaN),exc.getMessage());
+    }
+
+    public void check(){
+        try(Connection connection=replica.getConnection()){
+            if(lagQuery==null || lagQuery.isBlank()){
+                update(connection.isValid(5) ? new Status(true,"ok",0) : new Status(false,"unavailable",Double.NaN),null);
+                return;
+            }
+            try(Statement statement=connection.createStatement();ResultSet result=statement.executeQuery(lagQuery)){
+                Number lag=null;
+                if(result.next()){
+                    lag=(Number)(lagColumn==null || lagColumn.isBlank() ? result.getObject(1) : result.getObject(lagColumn));
+                }
+                if(lag==null){
+                    update(new Status(false,"not-replicating",Double.NaN),null);
+                }else if(lag.doubleValue()*1000>maxLag.toMillis()){
+                    update(new Status(false,"lag",lag.doubleValue()),null);
+                }else{
+                    update(new Status(true,"ok",lag.doubleValue()),null);
+                }
+            }
+        }catch(SQLException | RuntimeException exc){
+            update(new Status(false,"check-failed",Double.NaN),exc.getMessage());
+        }
+    }
+
+    // the first check runs on the scheduler too, a replica that is down cant hold up startup for a connection timeout.
+    // reads go to the primary until it has answered
+    @Override
+    public void start(){
+        ScheduledExecutorService executor=Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform().name("replica-lag-monitor").daemon().factory());
+        executor.scheduleWithFixedDelay(this::check,0,interval.toMillis(),TimeUnit.MILLISECONDS);
+        scheduler=executor;
+    }
+
+    @Override
+    public void stop(){
+        ScheduledExecutorService executor=scheduler;
+        scheduler=null;
+        if(executor!=null){
+            executor.shutdownNow();
+        }
+    }
+
+    @Override
+    public boolean isRunning(){
+        return scheduler!=null;
+    }
+
+    // logs only the transitions, a replica stuck behind would otherwise log every interval
+    private void update(Status next,String detail){
+        Status previous=status;
+        status=next;
+        if(previous.usable()!=next.usable() || !previous.reason().equals(next.reason())){
+            if(next.usable()){
+                log.info("replica usable for reads again, lag {}s",next.lagSeconds());
+            }else{
+                log.warn("replica reads moved to the primary: {}{}",next.reason(),detail!=null ? " ("+detail+")" : "");
+            }
+        }
+    }
+
+    private record Status(boolean usable,String reason,double lagSeconds) {
+    }
+
+}
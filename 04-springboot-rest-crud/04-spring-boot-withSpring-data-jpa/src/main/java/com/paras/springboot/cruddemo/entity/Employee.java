@@ -1,11 +1,14 @@
 package com.paras.springboot.cruddemo.entity;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 
 @Entity
 @Table(name="employee")
@@ -25,6 +28,12 @@ public class Employee {
     @Column(name="email")
     private String email;
 
+    // optimistic lock, every UPDATE checks and bumps it. clients see it only through the ETag
+    @Version
+    @Column(name="version")
+    @JsonIgnore
+    private int version;
+
 
     public Employee() {
     }
@@ -67,6 +76,14 @@ public class Employee {
         this.email = email;
     }
 
+    public int getVersion() {
+        return this.version;
+    }
+
+    public void setVersion(int version) {
+        this.version = version;
+    }
+
 
     @Override
     public String toString() {
@@ -75,6 +92,7 @@ public class Employee {
             ", firstName='" + getFirstName() + "'" +
             ", lastName='" + getLastName() + "'" +
             ", email='" + getEmail() + "'" +
+            ", version='" + getVersion() + "'" +
             "}";
     }
 
@@ -1,107 +1,337 @@
 package com.paras.springboot.cruddemo.rest;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.util.MimeTypeUtils;
 import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SequenceWriter;
 import com.paras.springboot.cruddemo.entity.Employee;
+import com.paras.springboot.cruddemo.service.EmployeeJsonCache;
+import com.paras.springboot.cruddemo.service.EmployeeMergePatch;
+import com.paras.springboot.cruddemo.service.EmployeePage;
 import com.paras.springboot.cruddemo.service.EmployeeService;
 
 @RestController
 @RequestMapping("/api")
 public class EmployeeRestController {
+    // what MappingJackson2SmileHttpMessageConverter answers to, Spring has no MediaType constant for it
+    private static final String SMILE_VALUE="application/x-jackson-smile";
+    private static final MediaType SMILE=MediaType.valueOf(SMILE_VALUE);
+    private static final String NDJSON="+ndjson";
+    private static final int DEFAULT_PAGE_SIZE=20;
+
     private EmployeeService employeeService;
     private ObjectMapper objectMapper;
+    private EmployeeJsonCache employeeJsonCache;
+    private boolean requireIfMatch;
 
 
 
     @Autowired
-    public EmployeeRestController(EmployeeService theEmployeeService,ObjectMapper theObjectMapper){
+    public EmployeeRestController(EmployeeService theEmployeeService,ObjectMapper theObjectMapper,EmployeeJsonCache theEmployeeJsonCache,
+            @Value("${employee.require-if-match:false}") boolean theRequireIfMatch){
         employeeService=theEmployeeService;
         objectMapper=theObjectMapper;
+        employeeJsonCache=theEmployeeJsonCache;
+        requireIfMatch=theRequireIfMatch;
     }
 
+    // If-None-Match hits answer 304 from the version alone, without touching the database or Jackson.
+    // page or size (/employees?page=0&size=20&sort=lastName,-id&view=summary&total=true) switches to a Slice of
+    // projections with no count(*), total=true adds a cached approximate total. the list version covers pages too
     @GetMapping("/employees")
-    public List<Employee>findAll(){
-        return employeeService.findAll();
+    public ResponseEntity<?>findAll(@RequestParam(required=false) Integer page,@RequestParam(required=false) Integer size,
+            @RequestParam(required=false) String sort,@RequestParam(required=false) String view,
+            @RequestParam(defaultValue="false") boolean total,WebRequest webRequest){
+        String eTag=eTag(employeeService.getVersion(),format(webRequest));
+        if(page==null && size==null){
+            if(notModified(webRequest,eTag)){
+                return null;
+            }
+            return ResponseEntity.ok().eTag(eTag).varyBy(HttpHeaders.ACCEPT).body(employeeService.findAll());
+        }
+        // the approximate total can move without a write here, so it gets no ETag
+        if(!total && notModified(webRequest,eTag)){
+            return null;
+        }
+        EmployeePage<?> thePage=employeeService.findPage(page!=null ? page : 0,size!=null ? size : DEFAULT_PAGE_SIZE,sort,view,total);
+        ResponseEntity.BodyBuilder ok=ResponseEntity.ok().varyBy(HttpHeaders.ACCEPT);
+        if(!total){
+            ok.eTag(eTag);
+        }
+        return ok.body(thePage);
+    }
+
+    // Accept: application/x-ndjson, one employee per line written as rows come off the cursor.
+    // notModified already put the ETag and Vary on the response, the streaming handler adds entity headers a second time
+    @GetMapping(value="/employees",produces=MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody>streamAllNdjson(WebRequest webRequest){
+        String eTag=eTag(employeeService.getVersion(),NDJSON);
+        if(notModified(webRequest,eTag)){
+            return null;
+        }
+        StreamingResponseBody body=outputStream -> {
+            try(SequenceWriter writer=streamWriter().withRootValueSeparator("\n").writeValues(outputStream)){
+                AtomicBoolean anyRow=new AtomicBoolean();
+                employeeService.forEachEmployee(employee -> {
+                    write(writer,employee);
+                    anyRow.set(true);
+                });
+                // the separator only goes between rows, terminate the last line too. no rows is an empty body, not a blank line
+                if(anyRow.get()){
+                    writer.flush();
+                    outputStream.write('\n');
+                }
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+
+    // /employees?stream, same JSON array as findAll but written chunk by chunk instead of built in memory. headers as above
+    @GetMapping(value="/employees",params="stream",produces=MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<StreamingResponseBody>streamAllJson(WebRequest webRequest){
+        String eTag=eTag(employeeService.getVersion());
+        if(notModified(webRequest,eTag)){
+            return null;
+        }
+        StreamingResponseBody body=outputStream -> {
+            try(SequenceWriter writer=streamWriter().writeValuesAsArray(outputStream)){
+                employeeService.forEachEmployee(employee -> write(writer,employee));
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
+    }
+
+    // JSON reads come out of EmployeeJsonCache, a hit costs neither a query nor serialization. a version learned here
+    // is trusted for employee.json-cache.ttl, after that the row is read again to catch writes made elsewhere.
+    // Smile and CBOR are asked for explicitly and go to getEmployee below.
+    // the ETag is the row's @Version, the same value If-Match takes on PUT and PATCH. Smile and CBOR bodies get it
+    // with a +smile/+cbor suffix, a cache must not answer a JSON If-None-Match with CBOR bytes
+    @GetMapping(value="/employees/{employeeId}",produces=MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<byte[]> getEmployeeJson(@PathVariable int employeeId,WebRequest webRequest) throws IOException {
+        String version=employeeService.getVersion(employeeId);
+        if(version!=null){
+            if(notModified(webRequest,eTag(version))){
+                return null;
+            }
+            byte[] json=employeeJsonCache.get(employeeId,version);
+            if(json!=null){
+                return ResponseEntity.ok().eTag(eTag(version)).varyBy(HttpHeaders.ACCEPT).contentType(MediaType.APPLICATION_JSON).body(json);
+            }
+        }
+        // version not known here yet (or the cached body is gone), read the row and learn it
+        Employee theEmployee=employeeService.findById(employeeId);
+        version=employeeService.getVersion(theEmployee);
+        if(notModified(webRequest,eTag(version))){
+            return null;
+        }
+        byte[] json=objectMapper.writeValueAsBytes(theEmployee);
+        employeeJsonCache.put(employeeId,version,json);
+        return ResponseEntity.ok().eTag(eTag(version)).varyBy(HttpHeaders.ACCEPT).contentType(MediaType.APPLICATION_JSON).body(json);
     }
 
-    @GetMapping("/employees/{employeeId}")
-    public Employee getEmployee(@PathVariable int employeeId){
+    @GetMapping(value="/employees/{employeeId}",produces={SMILE_VALUE,MediaType.APPLICATION_CBOR_VALUE})
+    public ResponseEntity<Employee> getEmployee(@PathVariable int employeeId,WebRequest webRequest){
+        String format=format(webRequest);
+        String version=employeeService.getVersion(employeeId);
+        if(version!=null && notModified(webRequest,eTag(version,format))){
+            return null;
+        }
         Employee theEmployee=employeeService.findById(employeeId);
         if(theEmployee==null){
             throw new RuntimeException("Employee id not found "+theEmployee);
         }
-        return theEmployee;
+        version=employeeService.getVersion(theEmployee);
+        if(notModified(webRequest,eTag(version,format))){
+            return null;
+        }
+        return ResponseEntity.ok().eTag(eTag(version,format)).varyBy(HttpHeaders.ACCEPT).body(theEmployee);
     }
 
 
     @PostMapping("/employees")
-    public Employee addEmployee(@RequestBody Employee theEmployee){
+    public ResponseEntity<Employee> addEmployee(@RequestBody Employee theEmployee){
         // in case id is sent in JSON set it to 0
         theEmployee.setId(0);
         Employee savedEmployee=employeeService.save(theEmployee);
-        return savedEmployee;
+        return ResponseEntity.ok().eTag(eTag(employeeService.getVersion(savedEmployee))).body(savedEmployee);
     }
 
 
+    // If-Match with the ETag from a GET makes this a compare-and-set: 412 when someone else wrote the row in between.
+    // without it the last write wins, unless employee.require-if-match is on (428)
     @PutMapping("/employees")
-    public Employee updateEmployee(@RequestBody Employee theEmployee){
-        Employee savedEmployee=employeeService.save(theEmployee);
-        return savedEmployee;
+    public ResponseEntity<Employee> updateEmployee(@RequestBody Employee theEmployee,
+            @RequestHeader(value=HttpHeaders.IF_MATCH,required=false) String ifMatch){
+        if(theEmployee.getId()==0){
+            // nothing to match against, this is a create
+            Employee savedEmployee=employeeService.save(theEmployee);
+            return ResponseEntity.ok().eTag(eTag(employeeService.getVersion(savedEmployee))).body(savedEmployee);
+        }
+        Employee savedEmployee=employeeService.update(theEmployee,expectedVersion(theEmployee.getId(),ifMatch));
+        if(savedEmployee==null){
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+        }
+        return ResponseEntity.ok().eTag(eTag(employeeService.getVersion(savedEmployee))).body(savedEmployee);
     }
 
+    // application/merge-patch+json (or plain JSON): one UPDATE of the members sent, then the row is read back for the body.
+    // Prefer: return=minimal skips the read back and answers 204. If-Match works as on PUT
     @PatchMapping("/employees/{employeeId}")
-    public Employee patchEmployee(@PathVariable int employeeId,@RequestBody Map<String,Object>patchPayload){
-        Employee tempEmployee=employeeService.findById(employeeId);
-        if(tempEmployee==null){
+    public ResponseEntity<Employee> patchEmployee(@PathVariable int employeeId,@RequestBody Map<String,Object>patchPayload,
+            @RequestHeader(value="Prefer",required=false) String prefer,
+            @RequestHeader(value=HttpHeaders.IF_MATCH,required=false) String ifMatch){
+        EmployeeMergePatch patch=EmployeeMergePatch.of(patchPayload);
+
+        if(!employeeService.patch(employeeId,patch,expectedVersion(employeeId,ifMatch))){
             throw new RuntimeException("Employee id not found");
         }
 
-        if(patchPayload.containsKey("id")){
-            throw new RuntimeException("Employee id is not allowed in request body "+employeeId);
+        if("return=minimal".equals(prefer)){
+            String version=employeeService.getVersion(employeeId);
+            ResponseEntity.HeadersBuilder<?> noContent=ResponseEntity.noContent().header("Preference-Applied",prefer);
+            if(version!=null){
+                noContent.eTag(eTag(version));
+            }
+            return noContent.build();
         }
+        Employee theEmployee=employeeService.findById(employeeId);
+        return ResponseEntity.ok().eTag(eTag(employeeService.getVersion(theEmployee))).body(theEmployee);
+    }
 
-        Employee updatedEmployee=apply(patchPayload,tempEmployee);
+    // a single DELETE, the affected row count says whether the id existed
+    @DeleteMapping("/employees/{employeeId}")
+    public ResponseEntity<String> deleteEmployee(@PathVariable int employeeId){
+        if(!employeeService.deleteById(employeeId)){
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body("Employee id not found - "+employeeId);
+        }
+        return ResponseEntity.ok("Deleted employee id of "+employeeId);
+    }
 
-        Employee dbEmployee=employeeService.save(updatedEmployee);
+    // leave the response stream open, the servlet container owns it
+    private ObjectWriter streamWriter(){
+        return objectMapper.writer().without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+    }
 
-        return dbEmployee;
+    private void write(SequenceWriter writer,Employee employee){
+        try{
+            writer.write(employee);
+        }catch(IOException exc){
+            throw new UncheckedIOException(exc);
+        }
+    }
 
+    private String eTag(String version){
+        return eTag(version,"");
     }
 
-    @DeleteMapping("/employees/{employeeId}")
-    public String deleteEmployee(@PathVariable int employeeId){
-        Employee emp=employeeService.findById(employeeId);
-        if(emp==null){
-            throw new RuntimeException("Id doesnt exist");
+    private String eTag(String version,String format){
+        return "\""+version+format+"\"";
+    }
+
+    // the suffix of the format content negotiation will pick for this Accept: none for JSON (and */*), +smile or +cbor
+    private String format(WebRequest webRequest){
+        String accept=webRequest.getHeader(HttpHeaders.ACCEPT);
+        if(accept==null || accept.isBlank()){
+            return "";
+        }
+        List<MediaType> accepted;
+        try{
+            accepted=MediaType.parseMediaTypes(accept);
+            // MediaType compares quality first, then specificity
+            MimeTypeUtils.sortBySpecificity(accepted);
+        }catch(IllegalArgumentException exc){
+            // Spring rejects this Accept itself, nothing gets a body
+            return "";
         }
-        employeeService.deleteById(employeeId);
+        for(MediaType type:accepted){
+            if(type.isCompatibleWith(MediaType.APPLICATION_JSON)){
+                return "";
+            }
+            if(type.isCompatibleWith(SMILE)){
+                return "+smile";
+            }
+            if(type.isCompatibleWith(MediaType.APPLICATION_CBOR)){
+                return "+cbor";
+            }
+        }
+        return "";
+    }
+
+    // checkNotModified answers the 304 before any ResponseEntity exists, the Vary has to be on the response already
+    private boolean notModified(WebRequest webRequest,String eTag){
+        if(webRequest instanceof ServletWebRequest servletRequest && servletRequest.getResponse()!=null){
+            servletRequest.getResponse().setHeader(HttpHeaders.VARY,HttpHeaders.ACCEPT);
+        }
+        return webRequest.checkNotModified(eTag);
+    }
 
-        return "Deleted employee id of "+employeeId;
+    // the @Version If-Match asks for, null when there is nothing to check. a tag that isnt a current one for this
+    // employee (weak, another id, garbage) can never match, so it fails like a stale one
+    private Integer expectedVersion(int employeeId,String ifMatch){
+        if(ifMatch==null){
+            if(requireIfMatch){
+                throw new ResponseStatusException(HttpStatus.PRECONDITION_REQUIRED,"If-Match is required to change employee "+employeeId);
+            }
+            return null;
+        }
+        String tag=ifMatch.trim();
+        if(tag.equals("*")){
+            return null;
+        }
+        Integer version=null;
+        if(tag.length()>1 && tag.startsWith("\"") && tag.endsWith("\"")){
+            // the tag of a Smile or CBOR GET names the same version
+            String value=tag.substring(1,tag.length()-1);
+            int format=value.indexOf('+');
+            version=employeeService.parseVersion(employeeId,format<0 ? value : value.substring(0,format));
+        }
+        if(version==null){
+            throw new OptimisticLockingFailureException("If-Match "+tag+" is not a version of employee "+employeeId);
+        }
+        return version;
     }
 
-    private Employee apply(Map<String, Object> patchPayload, Employee tempEmployee) {
-        //convert employee object to JSON object node
-        ObjectNode employeeNode=objectMapper.convertValue(tempEmployee,ObjectNode.class);
-        //convert patch object to JSON object node
-        ObjectNode patchNode=objectMapper.convertValue(patchPayload,ObjectNode.class);
-        //merge the patch object into employee
-        employeeNode.setAll(patchNode);
+    // stale If-Match, or a concurrent writer caught by the @Version check in the UPDATE itself
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<String> handleConflict(OptimisticLockingFailureException exc){
+        return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).body(exc.getMessage());
+    }
 
-        return objectMapper.convertValue(employeeNode,Employee.class);
+    // a bad page, size, sort or view value, or a PATCH body the merge patch rejects, is the client's mistake: 400 instead of a 500
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<String> handleBadRequest(IllegalArgumentException exc){
+        return ResponseEntity.badRequest().body(exc.getMessage());
     }
 
 
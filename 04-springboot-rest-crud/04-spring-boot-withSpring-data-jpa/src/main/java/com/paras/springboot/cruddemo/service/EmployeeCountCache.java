@@ -0,0 +1,55 @@
+package com.paras.springboot.cruddemo.service;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.paras.springboot.cruddemo.DAO.EmployeeRepository;
+
+// employee count(*) for paged listings that want a total, run at most once per ttl instead of once per page.
+// when it goes stale the first request to notice recounts and everyone else keeps getting the old total meanwhile,
+// so a slow count on a big table never lines up behind itself
+@Component
+public class EmployeeCountCache {
+
+    private final EmployeeRepository employeeRepo;
+    private final long ttlNanos;
+    private final AtomicBoolean counting=new AtomicBoolean();
+    private volatile Count last;
+
+    public EmployeeCountCache(EmployeeRepository theEmployeeRepo,@Value("${employee.count-cache.ttl:30s}") Duration theTtl){
+        employeeRepo=theEmployeeRepo;
+        ttlNanos=theTtl.toNanos();
+    }
+
+    public long get(){
+        Count current=last;
+        if(current==null){
+            // nothing to hand out yet, the first callers wait for one count
+            synchronized(this){
+                if(last==null){
+                    last=count();
+                }
+                return last.total();
+            }
+        }
+        if(System.nanoTime()-current.countedAt()>ttlNanos && counting.compareAndSet(false,true)){
+            try{
+                last=current=count();
+            }finally{
+                counting.set(false);
+            }
+        }
+        return current.total();
+    }
+
+    private Count count(){
+        return new Count(employeeRepo.count(),System.nanoTime());
+    }
+
+    private record Count(long total,long countedAt) {
+    }
+
+}
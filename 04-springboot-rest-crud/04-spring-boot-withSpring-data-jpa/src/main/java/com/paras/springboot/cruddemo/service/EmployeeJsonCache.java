@@ -0,0 +1,174 @@
+package com.paras.springboot.cruddemo.service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+// already serialized JSON bodies per employee id, bounded by the bytes they hold (max-bytes).
+// every entry carries the item version it was written for, so a hit is only served while that version is current
+// and a write to the id (EmployeeServiceImpl.changed) drops it straight away. writes from other processes are not
+// seen here, so an entry is also dropped once it is older than ttl.
+// no lock on the request path: reads are a map lookup, the counters are adders. once the bytes pass max-bytes one
+// put evicts the least recently used entries down to 90% of it, recency is a timestamp stamped on each hit, so
+// the order is approximate and the bound can be overshot by the puts racing that eviction
+@Component
+public class EmployeeJsonCache {
+
+    // map node, key, entry object and version string on top of the body itself, roughly
+    private static final int ENTRY_OVERHEAD=160;
+
+    private final long maxBytes;
+    private final long ttlNanos;
+    private final Map<Integer,Entry> entries=new ConcurrentHashMap<>(256);
+    private final AtomicLong bytes=new AtomicLong();
+    private final AtomicBoolean evicting=new AtomicBoolean();
+    private final LongAdder hits=new LongAdder();
+    private final LongAdder misses=new LongAdder();
+    private final LongAdder evictions=new LongAdder();
+
+    public EmployeeJsonCache(@Value("${employee.json-cache.max-bytes:16MB}") DataSize theMaxBytes,
+            @Value("${employee.json-cache.ttl:5s}") Duration theTtl,MeterRegistry registry){
+        maxBytes=theMaxBytes.toBytes();
+        ttlNanos=theTtl.toNanos();
+        FunctionCounter.builder("employee.json.cache.hits",this,EmployeeJsonCache::getHits).register(registry);
+        FunctionCounter.builder("employee.json.cache.misses",this,EmployeeJsonCache::getMisses).register(registry);
+        FunctionCounter.builder("employee.json.cache.evictions",this,EmployeeJsonCache::getEvictions).register(registry);
+        Gauge.builder("employee.json.cache.hit.ratio",this,EmployeeJsonCache::getHitRatio).register(registry);
+        Gauge.builder("employee.json.cache.size",this,EmployeeJsonCache::getBytes).baseUnit("bytes").register(registry);
+        Gauge.builder("employee.json.cache.entries",this,EmployeeJsonCache::getEntries).register(registry);
+    }
+
+    // null on a miss, when the cached body was written for another version, or has outlived ttl
+    public byte[] get(int theId,String theVersion){
+        Entry entry=entries.get(theId);
+        long now=System.nanoTime();
+        if(entry!=null && now-entry.storedAt>ttlNanos){
+            remove(theId,entry);
+            entry=null;
+        }
+        if(entry==null || !entry.version.equals(theVersion)){
+            misses.increment();
+            return null;
+        }
+        entry.usedAt=now;
+        hits.increment();
+        return entry.json;
+    }
+
+    public void put(int theId,String theVersion,byte[] json){
+        Entry entry=new Entry(theVersion,json,System.nanoTime());
+        if(entry.size>maxBytes){
+            return;
+        }
+        Entry old=entries.put(theId,entry);
+        long total=bytes.addAndGet(old!=null ? entry.size-old.size : entry.size);
+        if(total>maxBytes && evicting.compareAndSet(false,true)){
+            try{
+                evict();
+            }finally{
+                evicting.set(false);
+            }
+        }
+    }
+
+    public void invalidate(int theId){
+        Entry old=entries.remove(theId);
+        if(old!=null){
+            bytes.addAndGet(-old.size);
+        }
+    }
+
+    public long getHits(){
+        return hits.sum();
+    }
+
+    public long getMisses(){
+        return misses.sum();
+    }
+
+    public long getEvictions(){
+        return evictions.sum();
+    }
+
+    public double getHitRatio(){
+        long hitCount=hits.sum();
+        long lookups=hitCount+misses.sum();
+        return lookups==0 ? 0 : (double)hitCount/lookups;
+    }
+
+    public long getBytes(){
+        return bytes.get();
+    }
+
+    public int getEntries(){
+        return entries.size();
+    }
+
+    // one sort per pass, and the pass frees a tenth of max-bytes so the next one is many puts away.
+    // hits keep stamping usedAt while this runs, so the sort works on a copy of the stamps
+    private void evict(){
+        long target=maxBytes-maxBytes/10;
+        long now=System.nanoTime();
+        List<Candidate> candidates=new ArrayList<>(entries.size());
+        entries.forEach((id,entry) -> candidates.add(new Candidate(id,entry,entry.usedAt)));
+        candidates.sort(Comparator.comparingLong(Candidate::usedAt));
+        for(Candidate candidate:candidates){
+            Entry entry=candidate.entry();
+            boolean expired=now-entry.storedAt>ttlNanos;
+            if(bytes.get()<=target && !expired){
+                continue;
+            }
+            if(remove(candidate.id(),entry) && !expired){
+                evictions.increment();
+            }
+        }
+    }
+
+    // only if the id still holds this entry, a newer body put meanwhile stays
+    private boolean remove(int theId,Entry entry){
+        if(entries.remove(theId,entry)){
+            bytes.addAndGet(-entry.size);
+            return true;
+        }
+        return false;
+    }
+
+    private static long sizeOf(String theVersion,byte[] json){
+        return ENTRY_OVERHEAD+theVersion.length()+json.length;
+    }
+
+    private record Candidate(int id,Entry entry,long usedAt) {
+    }
+
+    // equality is identity, so remove(id, entry) only ever drops the entry that was looked at
+    private static final class Entry {
+        final String version;
+        final byte[] json;
+        final long storedAt;
+        final long size;
+        volatile long usedAt;
+
+        Entry(String theVersion,byte[] theJson,long theStoredAt){
+            version=theVersion;
+            json=theJson;
+            storedAt=theStoredAt;
+            size=sizeOf(theVersion,theJson);
+            usedAt=theStoredAt;
+        }
+    }
+
+}
@@ -0,0 +1,54 @@
+package com.paras.springboot.cruddemo.service;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// RFC 7396 merge patch for an Employee: members present in the body replace the attribute, null clears it,
+// absent ones are left alone. Every patchable property is resolved once here, so a request is
+// checked with a map lookup per member and never goes through a Jackson tree.
+// a body the patch cant apply (an id, an unknown member, a wrong type) is an IllegalArgumentException, a 400
+public final class EmployeeMergePatch {
+
+    // json property -> entity attribute type, all Employee scalars share their property and attribute names
+    private static final Map<String,Class<?>> FIELDS=Map.of(
+            "firstName",String.class,
+            "lastName",String.class,
+            "email",String.class);
+
+    private final Map<String,Object> changes;
+
+    private EmployeeMergePatch(Map<String,Object> theChanges){
+        changes=theChanges;
+    }
+
+    public static EmployeeMergePatch of(Map<String,Object> patchPayload){
+        Map<String,Object> changes=new LinkedHashMap<>();
+        for(Map.Entry<String,Object> member:patchPayload.entrySet()){
+            String name=member.getKey();
+            Object value=member.getValue();
+            if("id".equals(name)){
+                throw new IllegalArgumentException("Employee id is not allowed in request body");
+            }
+            Class<?> type=FIELDS.get(name);
+            if(type==null){
+                throw new IllegalArgumentException("Unknown employee field "+name);
+            }
+            if(value!=null && !type.isInstance(value)){
+                throw new IllegalArgumentException("Employee field "+name+" must be a "+type.getSimpleName());
+            }
+            changes.put(name,value);
+        }
+        return new EmployeeMergePatch(Collections.unmodifiableMap(changes));
+    }
+
+    // attribute -> new value, in request order
+    public Map<String,Object> getChanges(){
+        return changes;
+    }
+
+    public boolean isEmpty(){
+        return changes.isEmpty();
+    }
+
+}
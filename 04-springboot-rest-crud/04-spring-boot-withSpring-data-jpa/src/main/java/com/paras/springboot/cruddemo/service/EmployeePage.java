@@ -0,0 +1,59 @@
+package com.paras.springboot.cruddemo.service;
+
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+public class EmployeePage<T> {
+    private List<T> content;
+    private int page;
+    private int size;
+    // from the Slice, which read one row past the page. there is no count(*) over the table
+    private boolean hasNext;
+    // only when asked for: EmployeeCountCache's total, which can lag recent writes
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Long approximateTotal;
+
+
+    public EmployeePage(List<T> content, int page, int size, boolean hasNext, Long approximateTotal) {
+        this.content = content;
+        this.page = page;
+        this.size = size;
+        this.hasNext = hasNext;
+        this.approximateTotal = approximateTotal;
+    }
+
+
+    public List<T> getContent() {
+        return this.content;
+    }
+
+    public int getPage() {
+        return this.page;
+    }
+
+    public int getSize() {
+        return this.size;
+    }
+
+    public boolean isHasNext() {
+        return this.hasNext;
+    }
+
+    public Long getApproximateTotal() {
+        return this.approximateTotal;
+    }
+
+
+    @Override
+    public String toString() {
+        return "EmployeePage{" +
+            " content='" + getContent().size() + "'" +
+            ", page='" + getPage() + "'" +
+            ", size='" + getSize() + "'" +
+            ", hasNext='" + isHasNext() + "'" +
+            ", approximateTotal='" + getApproximateTotal() + "'" +
+            "}";
+    }
+
+}
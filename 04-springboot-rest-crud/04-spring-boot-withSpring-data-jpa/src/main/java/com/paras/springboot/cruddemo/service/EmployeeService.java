@@ -1,16 +1,45 @@
 package com.paras.springboot.cruddemo.service;
 
 import java.util.List;
+import java.util.function.Consumer;
 
 import com.paras.springboot.cruddemo.entity.Employee;
 
 public interface EmployeeService {
     List<Employee>findAll();
 
+    void forEachEmployee(Consumer<Employee> action);
+
+    // one page without counting the table. sort is comma separated attributes, - prefix for descending (id always breaks ties),
+    // view is "full" (EmployeeView) or "summary" (EmployeeSummary), withTotal adds the cached approximate total
+    EmployeePage<?> findPage(int page,int size,String sort,String view,boolean withTotal);
+
     Employee findById(int theId);
 
     Employee save(Employee theEmployee);
 
-    void deleteById(int theId);
+    // the methods taking an expectedVersion only write a row still at that @Version (null skips the check)
+    // and throw OptimisticLockingFailureException otherwise
+
+    // null when there is no employee with that id
+    Employee update(Employee theEmployee,Integer expectedVersion);
+
+    // false when there is no employee with that id
+    boolean patch(int theId,EmployeeMergePatch thePatch,Integer expectedVersion);
+
+    // false when there was no employee with that id
+    boolean deleteById(int theId);
+
+    // change counter behind the list ETag, it moves on every write
+    String getVersion();
+
+    // item ETag value from the row's @Version as last read or written here, null when this process hasnt seen the row yet
+    String getVersion(int theId);
+
+    // item ETag value of an employee just loaded, remembered for getVersion(int)
+    String getVersion(Employee theEmployee);
+
+    // the @Version an item ETag value stands for, null when it isnt one for this id
+    Integer parseVersion(int theId,String theVersion);
 
 }
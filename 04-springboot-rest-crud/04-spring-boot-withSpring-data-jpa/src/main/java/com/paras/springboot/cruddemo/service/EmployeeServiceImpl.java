@@ -1,28 +1,114 @@
 package com.paras.springboot.cruddemo.service;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import com.paras.springboot.cruddemo.DAO.EmployeeRepository;
+import com.paras.springboot.cruddemo.DAO.EmployeeSummary;
+import com.paras.springboot.cruddemo.DAO.EmployeeView;
 import com.paras.springboot.cruddemo.entity.Employee;
 
+import jakarta.persistence.EntityManager;
+
 @Service
 public class EmployeeServiceImpl implements EmployeeService {
 
+    private static final int MAX_PAGE_SIZE=1000;
+    private static final Set<String> SORTABLE=Set.of("id","firstName","lastName","email");
+    private static final Map<String,Class<?>> VIEWS=Map.of(
+            "full",EmployeeView.class,
+            "summary",EmployeeSummary.class);
+
     private EmployeeRepository employeeRepo;
+    private EntityManager entityManager;
+    private EmployeeJsonCache employeeJsonCache;
+    private EmployeeCountCache employeeCountCache;
 
-    public EmployeeServiceImpl(EmployeeRepository theEmployeeRepo){
+    // startup epoch keeps list versions from before a restart from matching
+    private final String epoch=Long.toString(System.currentTimeMillis(),36);
+    private final AtomicLong version=new AtomicLong();
+    // @Version per row as last read or written by this process, lets conditional GETs and the JSON cache
+    // answer without a query. other modules and instances write the same table, so a version is only trusted
+    // for ttl after it was read or written here, then the next GET reads the row again.
+    // entries only ever move forward, so a read that raced a write cant put an older version back, and a deleted id
+    // holds DELETED for the ttl so a read that raced the delete cant either. expired entries are dropped when looked
+    // up, and at most once per ttl a write or read sweeps the ones nobody asks for again
+    private static final int DELETED=Integer.MAX_VALUE;
+    private final Map<Integer,RowVersion> rowVersions=new ConcurrentHashMap<>();
+    private final long versionTtlNanos;
+    private final AtomicLong nextSweep=new AtomicLong(System.nanoTime());
+
+    public EmployeeServiceImpl(EmployeeRepository theEmployeeRepo,EntityManager theEntityManager,EmployeeJsonCache theEmployeeJsonCache,
+            EmployeeCountCache theEmployeeCountCache,@Value("${employee.json-cache.ttl:5s}") Duration theVersionTtl){
         employeeRepo=theEmployeeRepo;
+        entityManager=theEntityManager;
+        employeeJsonCache=theEmployeeJsonCache;
+        employeeCountCache=theEmployeeCountCache;
+        versionTtlNanos=theVersionTtl.toNanos();
     }
 
+    // the read-only methods are what a replica serves when app.datasource.replica.url is set
+
     @Override
+    @Transactional(readOnly=true)
     public List<Employee>findAll(){
         return employeeRepo.findAll();
     }
 
+    // rows are handed over as the cursor reads them and detached right after, so heap stays flat
+    @Override
+    @Transactional(readOnly=true)
+    public void forEachEmployee(Consumer<Employee> action){
+        try(Stream<Employee>employees=employeeRepo.streamAll()){
+            employees.forEach(employee -> {
+                action.accept(employee);
+                entityManager.detach(employee);
+            });
+        }
+    }
+
     @Override
+    @Transactional(readOnly=true)
+    public EmployeePage<?> findPage(int page,int size,String sort,String view,boolean withTotal){
+        if(page<0){
+            throw new IllegalArgumentException("Page must not be negative "+page);
+        }
+        if(size<1 || size>MAX_PAGE_SIZE){
+            throw new IllegalArgumentException("Page size must be between 1 and "+MAX_PAGE_SIZE+" "+size);
+        }
+        if((long)page*size>Integer.MAX_VALUE){
+            throw new IllegalArgumentException("Page "+page+" of size "+size+" starts past the last row that can be paged to");
+        }
+        Class<?> type=VIEWS.get(view!=null ? view : "full");
+        if(type==null){
+            throw new IllegalArgumentException("Unknown employee view "+view+", expected one of "+VIEWS.keySet());
+        }
+        Slice<?> slice=employeeRepo.findAllBy(PageRequest.of(page,size,parseSort(sort)),type);
+        Long total=withTotal ? employeeCountCache.get() : null;
+        return new EmployeePage<>(slice.getContent(),page,size,slice.hasNext(),total);
+    }
+
+    @Override
+    @Transactional(readOnly=true)
     public Employee findById(int theId) {
         Optional<Employee>result=employeeRepo.findById(theId);
 
@@ -34,17 +120,174 @@ public class EmployeeServiceImpl implements EmployeeService {
             throw new RuntimeException("We couldnt find employee of id "+theId);
         }
 
+        seen(theId,employee.getVersion());
         return employee;
     }
 
     @Override
     public Employee save(Employee theEmployee) {
-        return employeeRepo.save(theEmployee);
+        Employee dbEmployee=employeeRepo.save(theEmployee);
+        changed(dbEmployee.getId(),dbEmployee.getVersion());
+        return dbEmployee;
     }
-    
+
+    // the same single UPDATE as patch, with every field: the database checks and bumps the version in one statement
     @Override
-    public void deleteById(int theId) {
-        employeeRepo.deleteById(theId);
+    @Transactional
+    public Employee update(Employee theEmployee,Integer expectedVersion) {
+        Map<String,Object> changes=new LinkedHashMap<>();
+        changes.put("firstName",theEmployee.getFirstName());
+        changes.put("lastName",theEmployee.getLastName());
+        changes.put("email",theEmployee.getEmail());
+        int theId=theEmployee.getId();
+        if(employeeRepo.updateFields(theId,changes,expectedVersion)==0){
+            if(expectedVersion!=null && employeeRepo.existsById(theId)){
+                throw conflict(theId,expectedVersion);
+            }
+            return null;
+        }
+        theEmployee.setVersion(expectedVersion!=null ? expectedVersion+1 : employeeRepo.findVersionById(theId));
+        changed(theId,theEmployee.getVersion());
+        return theEmployee;
+    }
+
+    // no read first: the UPDATE itself tells us whether the row exists, and is at the expected version
+    @Override
+    @Transactional
+    public boolean patch(int theId,EmployeeMergePatch thePatch,Integer expectedVersion) {
+        if(thePatch.isEmpty()){
+            Employee dbEmployee=employeeRepo.findById(theId).orElse(null);
+            if(dbEmployee!=null && expectedVersion!=null && dbEmployee.getVersion()!=expectedVersion){
+                throw conflict(theId,expectedVersion);
+            }
+            return dbEmployee!=null;
+        }
+        if(employeeRepo.updateFields(theId,thePatch.getChanges(),expectedVersion)==0){
+            if(expectedVersion!=null && employeeRepo.existsById(theId)){
+                throw conflict(theId,expectedVersion);
+            }
+            return false;
+        }
+        // without an expected version, read back which one the UPDATE produced (own write, same transaction)
+        changed(theId,expectedVersion!=null ? expectedVersion+1 : employeeRepo.findVersionById(theId));
+        return true;
+    }
+
+    @Override
+    public boolean deleteById(int theId) {
+        if(employeeRepo.deleteEmployeeById(theId)==0){
+            return false;
+        }
+        changed(theId,DELETED);
+        return true;
+    }
+
+    @Override
+    public String getVersion() {
+        return epoch+"-"+version.get();
+    }
+
+    @Override
+    public String getVersion(int theId) {
+        RowVersion rowVersion=rowVersions.get(theId);
+        if(rowVersion==null){
+            return null;
+        }
+        if(expired(rowVersion,System.nanoTime())){
+            rowVersions.remove(theId,rowVersion);
+            return null;
+        }
+        if(rowVersion.version()==DELETED){
+            return null;
+        }
+        return theId+"."+rowVersion.version();
+    }
+
+    @Override
+    public String getVersion(Employee theEmployee) {
+        seen(theEmployee.getId(),theEmployee.getVersion());
+        return theEmployee.getId()+"."+theEmployee.getVersion();
+    }
+
+    @Override
+    public Integer parseVersion(int theId,String theVersion) {
+        String prefix=theId+".";
+        if(theVersion==null || !theVersion.startsWith(prefix)){
+            return null;
+        }
+        try{
+            return Integer.valueOf(theVersion.substring(prefix.length()));
+        }catch(NumberFormatException exc){
+            return null;
+        }
+    }
+
+    // "lastName,-email" -> lastName asc, email desc, id asc so rows with equal keys keep their page
+    private Sort parseSort(String sort) {
+        List<Sort.Order> orders=new ArrayList<>();
+        boolean byId=false;
+        if(sort!=null && !sort.isBlank()){
+            for(String item:sort.split(",")){
+                String attribute=item.trim();
+                boolean descending=attribute.startsWith("-");
+                if(descending){
+                    attribute=attribute.substring(1);
+                }
+                if(!SORTABLE.contains(attribute)){
+                    throw new IllegalArgumentException("Cannot sort employees by "+item);
+                }
+                orders.add(descending ? Sort.Order.desc(attribute) : Sort.Order.asc(attribute));
+                byId|=attribute.equals("id");
+            }
+        }
+        if(!byId){
+            orders.add(Sort.Order.asc("id"));
+        }
+        return Sort.by(orders);
+    }
+
+    private OptimisticLockingFailureException conflict(int theId,int expectedVersion) {
+        return new OptimisticLockingFailureException("Employee "+theId+" has changed since version "+expectedVersion);
+    }
+
+    // the same version seen again restarts its ttl, an older one changes nothing
+    private void seen(int theId,int rowVersion) {
+        long now=System.nanoTime();
+        rowVersions.merge(theId,new RowVersion(rowVersion,now),
+                (old,seen) -> old.version()>seen.version() && !expired(old,now) ? old : seen);
+        long sweepAt=nextSweep.get();
+        if(now-sweepAt>=0 && nextSweep.compareAndSet(sweepAt,now+versionTtlNanos)){
+            // removes an entry only if it is still the expired one, a version stored meanwhile stays
+            rowVersions.values().removeIf(entry -> expired(entry,now));
+        }
+    }
+
+    private boolean expired(RowVersion rowVersion,long now) {
+        return now-rowVersion.seenAt()>versionTtlNanos;
+    }
+
+    // only once the write is committed, a reader can pair new data with an old version (one extra 200) but never the
+    // reverse. rowVersion is the version the write left the row at
+    private void changed(int theId,int rowVersion) {
+        if(!TransactionSynchronizationManager.isSynchronizationActive()){
+            publish(theId,rowVersion);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                publish(theId,rowVersion);
+            }
+        });
+    }
+
+    private void publish(int theId,int rowVersion) {
+        seen(theId,rowVersion);
+        version.incrementAndGet();
+        employeeJsonCache.invalidate(theId);
+    }
+
+    private record RowVersion(int version,long seenAt) {
     }
 
 }
@@ -0,0 +1,210 @@
+package com.paras.springboot.cruddemo.datasource;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import com.paras.springboot.cruddemo.entity.Employee;
+import com.paras.springboot.cruddemo.service.EmployeeService;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+// two in-memory H2 databases stand in for the primary and its replica. nothing replicates between them, so every
+// row says which one it was read from. each unit of work runs on a thread of its own, inside a mock request
+// where read-your-writes needs one
+@SpringBootTest(webEnvironment=SpringBootTest.WebEnvironment.NONE,properties={
+        "spring.datasource.url=jdbc:h2:mem:primary;DB_CLOSE_DELAY=-1",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.hibernate.ddl-auto=create",
+        "app.datasource.replica.url=jdbc:h2:mem:replica;DB_CLOSE_DELAY=-1",
+        "app.datasource.replica.username=sa",
+        "app.datasource.replica.password=",
+        "app.datasource.replica.lag-query=select seconds from replica_lag",
+        "app.datasource.replica.max-lag=2s",
+        // the tests run the checks themselves
+        "app.datasource.replica.lag-check-interval=1h",
+        "app.datasource.replica.read-your-writes=5s"})
+class ReadWriteRoutingDataSourceTests {
+
+    @Autowired
+    private EmployeeService employeeService;
+
+    @Autowired
+    private ReplicaLagMonitor lagMonitor;
+
+    @Autowired
+    private MeterRegistry registry;
+
+    @Autowired
+    @Qualifier("primaryDataSource")
+    private DataSource primaryDataSource;
+
+    @Autowired
+    @Qualifier("replicaDataSource")
+    private DataSource replicaDataSource;
+
+    private JdbcTemplate primary;
+    private JdbcTemplate replica;
+    // the replica pool is read-only, schema and "replicated" rows go in over a connection of their own
+    private JdbcTemplate replicaAdmin=new JdbcTemplate(new DriverManagerDataSource("jdbc:h2:mem:replica;DB_CLOSE_DELAY=-1","sa",""));
+
+    @BeforeEach
+    void setUp() {
+        primary=new JdbcTemplate(primaryDataSource);
+        replica=new JdbcTemplate(replicaDataSource);
+        primary.update("delete from employee");
+        primary.update("insert into employee (id,first_name,last_name,email,version) values (1,'Leslie','Andrews','primary@luv2code.com',0)");
+        primary.update("alter table employee alter column id restart with 2");
+
+        replicaAdmin.execute("""
+                create table if not exists employee (id int primary key,first_name varchar(45),last_name varchar(45),
+                    email varchar(45),version int not null default 0);
+                create table if not exists replica_lag (seconds int);
+                delete from employee;
+                delete from replica_lag;
+                insert into employee values (1,'Leslie','Andrews','replica@luv2code.com',0);
+                insert into replica_lag values (0);
+                """);
+        lagMonitor.check();
+    }
+
+    @Test
+    void readOnlyTransactionsReadFromTheReplica() throws Exception {
+        assertTrue(lagMonitor.isUsable());
+        assertEquals("replica@luv2code.com",inNewThread(() -> employeeService.findById(1).getEmail()));
+        assertEquals(1,inNewThread(() -> employeeService.findAll().size()));
+    }
+
+    @Test
+    void writesGoToThePrimary() throws Exception {
+        inNewThread(() -> employeeService.save(new Employee("Emma","Baumgarten","emma@luv2code.com")));
+
+        assertEquals(2,primary.queryForObject("select count(*) from employee",Integer.class));
+        assertEquals(1,replica.queryForObject("select count(*) from employee",Integer.class));
+    }
+
+    @Test
+    void aRequestReadsItsOwnWritesFromThePrimary() throws Exception {
+        MockHttpServletResponse response=new MockHttpServletResponse();
+        String email=inRequest(new MockHttpServletRequest(),response,() -> {
+            employeeService.update(updatedEmployee(),null);
+            return employeeService.findById(1).getEmail();
+        });
+
+        assertEquals("updated@luv2code.com",email);
+        assertTrue(fallbacks("read-your-writes")>0);
+        assertNotNull(response.getCookie(ReadYourWrites.COOKIE));
+    }
+
+    @Test
+    void theCookieCarriesReadYourWritesToTheClientsNextRequest() throws Exception {
+        MockHttpServletResponse written=new MockHttpServletResponse();
+        inRequest(new MockHttpServletRequest(),written,() -> employeeService.update(updatedEmployee(),null));
+
+        MockHttpServletRequest next=new MockHttpServletRequest();
+        next.setCookies(written.getCookie(ReadYourWrites.COOKIE));
+        assertEquals("updated@luv2code.com",inRequest(next,new MockHttpServletResponse(),() -> employeeService.findById(1).getEmail()));
+    }
+
+    // a pooled thread that served a write has nothing left over for the next, unrelated, request
+    @Test
+    void readYourWritesStaysWithTheRequestNotTheThread() throws Exception {
+        try(ExecutorService pooled=Executors.newSingleThreadExecutor()){
+            pooled.submit(asRequest(new MockHttpServletRequest(),new MockHttpServletResponse(),
+                    () -> employeeService.update(updatedEmployee(),null))).get();
+            assertEquals("replica@luv2code.com",pooled.submit(asRequest(new MockHttpServletRequest(),new MockHttpServletResponse(),
+                    () -> employeeService.findById(1).getEmail())).get());
+        }
+    }
+
+    @Test
+    void aLaggingReplicaIsSkipped() throws Exception {
+        replicaLag("5");
+
+        assertEquals("primary@luv2code.com",inNewThread(() -> employeeService.findById(1).getEmail()));
+        assertEquals("lag",lagMonitor.getReason());
+
+        replicaLag("1");
+        assertEquals("replica@luv2code.com",inNewThread(() -> employeeService.findById(1).getEmail()));
+    }
+
+    @Test
+    void stoppedReplicationOrAFailedCheckIsSkipped() throws Exception {
+        replicaLag("null");
+        assertEquals("not-replicating",lagMonitor.getReason());
+        assertEquals("primary@luv2code.com",inNewThread(() -> employeeService.findById(1).getEmail()));
+
+        replicaAdmin.execute("drop table replica_lag");
+        lagMonitor.check();
+        assertEquals("check-failed",lagMonitor.getReason());
+        assertEquals("primary@luv2code.com",inNewThread(() -> employeeService.findById(1).getEmail()));
+    }
+
+    @Test
+    void eachRouteHasItsOwnPoolMetrics() throws Exception {
+        inNewThread(() -> employeeService.findById(1));
+
+        assertNotNull(registry.find("hikaricp.connections.active").tag("pool","primary").gauge());
+        assertNotNull(registry.find("hikaricp.connections.active").tag("pool","replica").gauge());
+        assertTrue(registry.get("datasource.routing.connections").tag("route","replica").counter().count()>0);
+        assertEquals(0,registry.get("datasource.replica.lag").gauge().value());
+    }
+
+    private void replicaLag(String seconds) {
+        replicaAdmin.update("update replica_lag set seconds="+seconds);
+        lagMonitor.check();
+    }
+
+    private double fallbacks(String reason) {
+        Counter counter=registry.find("datasource.routing.fallbacks").tag("reason",reason).counter();
+        return counter==null ? 0 : counter.count();
+    }
+
+    private static Employee updatedEmployee() {
+        Employee theEmployee=new Employee("Leslie","Andrews","updated@luv2code.com");
+        theEmployee.setId(1);
+        return theEmployee;
+    }
+
+    private static <T> T inRequest(MockHttpServletRequest request,MockHttpServletResponse response,Callable<T> work) throws Exception {
+        return inNewThread(asRequest(request,response,work));
+    }
+
+    private static <T> Callable<T> asRequest(MockHttpServletRequest request,MockHttpServletResponse response,Callable<T> work) {
+        return () -> {
+            RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request,response));
+            try{
+                return work.call();
+            }finally{
+                RequestContextHolder.resetRequestAttributes();
+            }
+        };
+    }
+
+    private static <T> T inNewThread(Callable<T> work) throws Exception {
+        try(ExecutorService executor=Executors.newVirtualThreadPerTaskExecutor()){
+            return executor.submit(work).get();
+        }
+    }
+
+}
@@ -0,0 +1,83 @@
+package com.paras.springboot.cruddemo.rest;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.paras.springboot.cruddemo.entity.Employee;
+
+// /api/employees list body as JSON, Smile and CBOR: encode + decode cost, payload sizes are printed in setup
+// run with: mvn test-compile exec:exec -Dexec.executable=java -Dexec.classpathScope=test
+//           -Dexec.args="-cp %classpath com.paras.springboot.cruddemo.rest.EmployeeFormatBenchmark"
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations=3,time=2)
+@Measurement(iterations=5,time=2)
+public class EmployeeFormatBenchmark {
+
+    private static final TypeReference<List<Employee>> EMPLOYEE_LIST=new TypeReference<>() {};
+
+    @Param({"100","10000"})
+    public int employees;
+
+    @Param({"json","smile","cbor"})
+    public String format;
+
+    private ObjectMapper mapper;
+    private List<Employee> list;
+    private byte[] encoded;
+
+    @Setup
+    public void setUp() throws IOException {
+        mapper=switch(format){
+            case "smile" -> new ObjectMapper(new SmileFactory());
+            case "cbor" -> new ObjectMapper(new CBORFactory());
+            default -> new ObjectMapper();
+        };
+        list=new ArrayList<>(employees);
+        for(int i=0;i<employees;i++){
+            Employee employee=new Employee("First"+i,"Last"+i,"employee"+i+"@luv2code.com");
+            employee.setId(i+1);
+            list.add(employee);
+        }
+        encoded=mapper.writeValueAsBytes(list);
+        System.out.println(format+" payload for "+employees+" employees: "+encoded.length+" bytes");
+    }
+
+    @Benchmark
+    public byte[] serialize() throws IOException {
+        return mapper.writeValueAsBytes(list);
+    }
+
+    @Benchmark
+    public List<Employee> deserialize() throws IOException {
+        return mapper.readValue(encoded,EMPLOYEE_LIST);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(EmployeeFormatBenchmark.class.getSimpleName()).build()).run();
+    }
+
+}
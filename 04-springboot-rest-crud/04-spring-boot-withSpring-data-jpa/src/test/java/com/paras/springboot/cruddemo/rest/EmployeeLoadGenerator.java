@@ -0,0 +1,103 @@
+package com.paras.springboot.cruddemo.rest;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// closed-loop GET load against a running app: N clients, each sends its next request as soon as the last one answers
+// start the app once per mode, then point this at it and compare the two summaries:
+//   mvn spring-boot:run                                                                      (platform pool)
+//   mvn spring-boot:run -Dspring-boot.run.arguments=--spring.threads.virtual.enabled=true   (virtual threads)
+//   mvn test-compile exec:exec -Dexec.executable=java -Dexec.classpathScope=test
+//       -Dexec.args="-cp %classpath com.paras.springboot.cruddemo.rest.EmployeeLoadGenerator http://localhost:8080/api/employees 1000 30"
+public class EmployeeLoadGenerator {
+
+    public static void main(String[] args) throws Exception {
+        URI target=URI.create(args.length>0 ? args[0] : "http://localhost:8080/api/employees");
+        int clients=args.length>1 ? Integer.parseInt(args[1]) : 1000;
+        int seconds=args.length>2 ? Integer.parseInt(args[2]) : 30;
+        int warmupSeconds=args.length>3 ? Integer.parseInt(args[3]) : 5;
+
+        HttpClient http=HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(10))
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build();
+        HttpRequest request=HttpRequest.newBuilder(target).timeout(Duration.ofSeconds(60)).GET().build();
+
+        long measureFrom=System.nanoTime()+TimeUnit.SECONDS.toNanos(warmupSeconds);
+        long deadline=measureFrom+TimeUnit.SECONDS.toNanos(seconds);
+        AtomicLong errors=new AtomicLong();
+        List<long[]> latencies=new ArrayList<>(clients);
+
+        System.out.println(clients+" clients -> "+target+" for "+seconds+"s after "+warmupSeconds+"s warmup");
+        try(ExecutorService pool=Executors.newVirtualThreadPerTaskExecutor()){
+            for(int i=0;i<clients;i++){
+                LatencyLog log=new LatencyLog();
+                pool.submit(() -> {
+                    while(System.nanoTime()<deadline){
+                        long start=System.nanoTime();
+                        boolean ok;
+                        try{
+                            ok=http.send(request,HttpResponse.BodyHandlers.discarding()).statusCode()<400;
+                        }catch(Exception exc){
+                            ok=false;
+                        }
+                        if(start<measureFrom){
+                            continue;
+                        }
+                        if(ok){
+                            log.add(System.nanoTime()-start);
+                        }else{
+                            errors.incrementAndGet();
+                        }
+                    }
+                    synchronized(latencies){
+                        latencies.add(log.toArray());
+                    }
+                    return null;
+                });
+            }
+        }
+
+        long[] all=latencies.stream().flatMapToLong(Arrays::stream).sorted().toArray();
+        System.out.printf("requests   %d ok, %d failed%n",all.length,errors.get());
+        System.out.printf("throughput %.1f req/s%n",all.length/(double)seconds);
+        if(all.length>0){
+            System.out.printf("latency    p50 %.1f ms, p99 %.1f ms, p99.9 %.1f ms, max %.1f ms%n",
+                    millis(all,0.50),millis(all,0.99),millis(all,0.999),all[all.length-1]/1e6);
+        }
+    }
+
+    private static double millis(long[] sorted,double quantile){
+        int index=(int)Math.ceil(quantile*sorted.length)-1;
+        return sorted[Math.max(index,0)]/1e6;
+    }
+
+    // per-client buffer, so recording a sample never contends with the other clients
+    private static class LatencyLog {
+        private long[] samples=new long[1024];
+        private int size;
+
+        void add(long nanos){
+            if(size==samples.length){
+                samples=Arrays.copyOf(samples,size*2);
+            }
+            samples[size++]=nanos;
+        }
+
+        long[] toArray(){
+            return Arrays.copyOf(samples,size);
+        }
+    }
+
+}
@@ -0,0 +1,77 @@
+package com.paras.springboot.cruddemo.rest;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.paras.springboot.cruddemo.entity.Employee;
+import com.paras.springboot.cruddemo.service.EmployeeMergePatch;
+
+// CPU side of one PATCH: the old apply() (entity -> tree, patch -> tree, merge, tree -> entity, then a full merge)
+// vs EmployeeMergePatch building the changed attributes for a single UPDATE. The SQL saved on top (no SELECT,
+// only the sent columns in the UPDATE) isnt part of this number
+// run with: mvn test-compile exec:exec -Dexec.executable=java -Dexec.classpathScope=test
+//           -Dexec.args="-cp %classpath com.paras.springboot.cruddemo.rest.EmployeePatchBenchmark"
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations=3,time=2)
+@Measurement(iterations=5,time=2)
+public class EmployeePatchBenchmark {
+
+    // members in the patch body
+    @Param({"1","3"})
+    public int fields;
+
+    private ObjectMapper objectMapper=new ObjectMapper();
+    private Employee employee;
+    private Map<String,Object> patchPayload;
+
+    @Setup
+    public void setUp() {
+        employee=new Employee("Leslie","Andrews","leslie@luv2code.com");
+        employee.setId(1);
+        patchPayload=new LinkedHashMap<>();
+        patchPayload.put("email","leslie.andrews@luv2code.com");
+        if(fields>1){
+            patchPayload.put("firstName","Lesley");
+            patchPayload.put("lastName",null);
+        }
+    }
+
+    @Benchmark
+    public Employee before() {
+        ObjectNode employeeNode=objectMapper.convertValue(employee,ObjectNode.class);
+        ObjectNode patchNode=objectMapper.convertValue(patchPayload,ObjectNode.class);
+        employeeNode.setAll(patchNode);
+        return objectMapper.convertValue(employeeNode,Employee.class);
+    }
+
+    @Benchmark
+    public Map<String,Object> after() {
+        return EmployeeMergePatch.of(patchPayload).getChanges();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(EmployeePatchBenchmark.class.getSimpleName()).build()).run();
+    }
+
+}
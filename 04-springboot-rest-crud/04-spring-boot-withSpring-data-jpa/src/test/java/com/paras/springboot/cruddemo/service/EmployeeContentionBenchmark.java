@@ -0,0 +1,157 @@
+package com.paras.springboot.cruddemo.service;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.orm.jpa.SharedEntityManagerCreator;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.paras.springboot.cruddemo.CruddemoApplication;
+import com.paras.springboot.cruddemo.entity.Employee;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.LockModeType;
+
+// 8 writers editing the same few employees, on an in-memory H2 booted with the real service:
+// optimistic = what an If-Match client does (read, update at the version read, on a 412 read again and retry)
+// pessimistic = the old wrapper (select ... for update, write, commit), writers to one row queue on its lock.
+// thinkMicros is the time between reading a row and writing it back (an editor, a network hop): the pessimistic
+// wrapper holds the row lock through it, optimistic writers dont hold anything.
+// ops are completed edits, "conflicts" counts the optimistic retries. H2 locks and commits far cheaper than
+// MySQL over a network, so read the gap between the two rather than the absolute numbers
+// run with: mvn test-compile exec:exec -Dexec.executable=java -Dexec.classpathScope=test
+//           -Dexec.args="-cp %classpath com.paras.springboot.cruddemo.service.EmployeeContentionBenchmark"
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Threads(8)
+@Warmup(iterations=3,time=2)
+@Measurement(iterations=5,time=2)
+public class EmployeeContentionBenchmark {
+
+    // rows the writers pick from, 1 is every writer on the same employee
+    @Param({"1","64"})
+    public int hotRows;
+
+    @Param({"0","1000"})
+    public int thinkMicros;
+
+    private ConfigurableApplicationContext context;
+    private EmployeeService employeeService;
+    private TransactionTemplate transactionTemplate;
+    private EntityManager entityManager;
+    private int[] ids;
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Writer {
+        public long conflicts;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            conflicts=0;
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        System.setProperty("spring.devtools.restart.enabled","false");
+        context=new SpringApplicationBuilder(CruddemoApplication.class)
+                .web(WebApplicationType.NONE)
+                .logStartupInfo(false)
+                .run("--spring.datasource.url=jdbc:h2:mem:contention;DB_CLOSE_DELAY=-1;LOCK_TIMEOUT=10000;DB_CLOSE_ON_EXIT=FALSE",
+                        "--spring.datasource.username=sa",
+                        "--spring.datasource.password=",
+                        "--spring.datasource.hikari.maximum-pool-size=16",
+                        "--spring.jpa.hibernate.ddl-auto=create-drop",
+                        "--logging.level.root=warn",
+                        // h2 is already gone when the context closes at the end of the trial
+                        "--logging.level.org.springframework.beans.factory.support.DisposableBeanAdapter=error");
+        employeeService=context.getBean(EmployeeService.class);
+        transactionTemplate=new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        entityManager=SharedEntityManagerCreator.createSharedEntityManager(context.getBean(EntityManagerFactory.class));
+
+        ids=new int[hotRows];
+        for(int i=0;i<hotRows;i++){
+            ids[i]=employeeService.save(new Employee("First"+i,"Last"+i,"employee"+i+"@luv2code.com")).getId();
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Employee optimistic(Writer writer) {
+        int id=pick();
+        while(true){
+            Employee current=employeeService.findById(id);
+            think();
+            Employee edit=new Employee(current.getFirstName(),current.getLastName(),nextEmail());
+            edit.setId(id);
+            try{
+                return employeeService.update(edit,current.getVersion());
+            }catch(OptimisticLockingFailureException exc){
+                writer.conflicts++;
+            }
+        }
+    }
+
+    @Benchmark
+    public Employee pessimistic() {
+        int id=pick();
+        return transactionTemplate.execute(status -> {
+            Employee current=entityManager.find(Employee.class,id,LockModeType.PESSIMISTIC_WRITE);
+            think();
+            current.setEmail(nextEmail());
+            return current;
+        });
+    }
+
+    // parks rather than spins, a waiting editor doesnt burn a cpu
+    private void think() {
+        if(thinkMicros>0){
+            LockSupport.parkNanos(TimeUnit.MICROSECONDS.toNanos(thinkMicros));
+        }
+    }
+
+    private int pick() {
+        return ids[ThreadLocalRandom.current().nextInt(ids.length)];
+    }
+
+    private static String nextEmail() {
+        return "edit"+ThreadLocalRandom.current().nextInt(1000000)+"@luv2code.com";
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(EmployeeContentionBenchmark.class.getSimpleName()).build()).run();
+    }
+
+}
@@ -0,0 +1,84 @@
+package com.paras.springboot.cruddemo;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+
+// logs JFR jdk.VirtualThreadPinned events, so a JDBC driver or pool that blocks while holding its carrier shows up with a stack
+@Component
+@ConditionalOnThreading(Threading.VIRTUAL)
+@ConditionalOnProperty(name="app.threads.pinning-monitor.enabled",havingValue="true",matchIfMissing=true)
+public class VirtualThreadPinningMonitor implements SmartLifecycle {
+
+    private static final Logger log=LoggerFactory.getLogger(VirtualThreadPinningMonitor.class);
+    private static final String PINNED_EVENT="jdk.VirtualThreadPinned";
+    private static final int MAX_FRAMES=25;
+
+    private final Duration threshold;
+    private final AtomicLong pinnedEvents=new AtomicLong();
+    private volatile RecordingStream stream;
+
+    public VirtualThreadPinningMonitor(@Value("${app.threads.pinning-monitor.threshold:20ms}") Duration theThreshold){
+        threshold=theThreshold;
+    }
+
+    @Override
+    public void start(){
+        RecordingStream recording=new RecordingStream();
+        recording.enable(PINNED_EVENT).withThreshold(threshold).withStackTrace();
+        recording.onEvent(PINNED_EVENT,this::report);
+        recording.startAsync();
+        stream=recording;
+        log.info("watching for virtual threads pinned longer than {}",threshold);
+    }
+
+    @Override
+    public void stop(){
+        RecordingStream recording=stream;
+        stream=null;
+        if(recording!=null){
+            recording.close();
+        }
+        log.info("{} pinned virtual thread event(s) seen",pinnedEvents.get());
+    }
+
+    @Override
+    public boolean isRunning(){
+        return stream!=null;
+    }
+
+    public long getPinnedEvents(){
+        return pinnedEvents.get();
+    }
+
+    private void report(RecordedEvent event){
+        long count=pinnedEvents.incrementAndGet();
+        log.warn("virtual thread pinned for {} ms (#{}){}",event.getDuration().toMillis(),count,stackOf(event));
+    }
+
+    private static String stackOf(RecordedEvent event){
+        if(event.getStackTrace()==null){
+            return "";
+        }
+        List<RecordedFrame> frames=event.getStackTrace().getFrames();
+        return frames.stream()
+                .limit(MAX_FRAMES)
+                .map(frame -> frame.getMethod().getType().getName()+"."+frame.getMethod().getName()+":"+frame.getLineNumber())
+                .collect(Collectors.joining("\n\tat ","\n\tat ",""));
+    }
+
+}
@@ -0,0 +1,16 @@
+package com.paras.springboot.cruddemo;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+
+// the WebFlux + R2DBC edition of 04-spring-boot-withSpring-data-jpa: same employee table, same /api/employees
+// contract. EmployeeMergePatch is that module's class as is, EmployeeLoadGenerator (test scope) is its load
+// generator with a server memory sample added. the explanations stay with the originals
+@SpringBootApplication
+public class CruddemoApplication {
+
+	public static void main(String[] args) {
+		SpringApplication.run(CruddemoApplication.class, args);
+	}
+
+}
@@ -0,0 +1,55 @@
+package com.paras.springboot.cruddemo.DAO;
+
+import java.util.Map;
+
+import org.springframework.r2dbc.core.DatabaseClient;
+
+import reactor.core.publisher.Mono;
+
+public class EmployeePatchRepositoryImpl implements EmployeePatchRepository {
+
+    // attribute -> column, the only names that ever reach the SQL
+    private static final Map<String,String> COLUMNS=Map.of(
+            "firstName","first_name",
+            "lastName","last_name",
+            "email","email");
+
+    private DatabaseClient databaseClient;
+
+    public EmployeePatchRepositoryImpl(DatabaseClient theDatabaseClient){
+        databaseClient=theDatabaseClient;
+    }
+
+    // attribute names come from EmployeeMergePatch, never straight from the request
+    @Override
+    public Mono<Long> updateFields(int theId,Map<String,Object> changes,Integer expectedVersion){
+        StringBuilder sql=new StringBuilder("update employee set ");
+        int i=0;
+        for(String attribute:changes.keySet()){
+            String column=COLUMNS.get(attribute);
+            if(column==null){
+                return Mono.error(new IllegalArgumentException("Unknown employee attribute "+attribute));
+            }
+            if(i>0){
+                sql.append(", ");
+            }
+            sql.append(column).append("=:p").append(i++);
+        }
+        sql.append(", version=version+1 where id=:id");
+        if(expectedVersion!=null){
+            sql.append(" and version=:version");
+        }
+
+        DatabaseClient.GenericExecuteSpec theQuery=databaseClient.sql(sql.toString());
+        i=0;
+        for(Object value:changes.values()){
+            theQuery=value==null ? theQuery.bindNull("p"+i++,String.class) : theQuery.bind("p"+i++,value);
+        }
+        theQuery=theQuery.bind("id",theId);
+        if(expectedVersion!=null){
+            theQuery=theQuery.bind("version",expectedVersion);
+        }
+        return theQuery.fetch().rowsUpdated();
+    }
+
+}
@@ -0,0 +1,23 @@
+package com.paras.springboot.cruddemo.DAO;
+
+import org.springframework.data.r2dbc.repository.Modifying;
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.repository.reactive.ReactiveCrudRepository;
+
+import com.paras.springboot.cruddemo.entity.Employee;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+public interface EmployeeRepository extends ReactiveCrudRepository<Employee, Integer>, EmployeePatchRepository {
+
+    // rows are decoded as the subscriber asks for them, the driver stops reading the socket when it stops asking
+    @Query("select * from employee order by id")
+    Flux<Employee> streamAll();
+
+    // one DELETE by primary key, unlike deleteById it reports whether the id existed. 0 means no such id
+    @Modifying
+    @Query("delete from employee where id=:id")
+    Mono<Integer> deleteEmployeeById(int id);
+
+}
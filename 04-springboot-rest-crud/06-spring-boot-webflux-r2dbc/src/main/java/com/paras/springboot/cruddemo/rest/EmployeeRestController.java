@@ -0,0 +1,178 @@
+package com.paras.springboot.cruddemo.rest;
+
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.server.ServerWebExchange;
+
+import com.paras.springboot.cruddemo.entity.Employee;
+import com.paras.springboot.cruddemo.service.EmployeeMergePatch;
+import com.paras.springboot.cruddemo.service.EmployeeService;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+// the /api/employees contract of the Spring Data JPA module, served without a thread per request:
+// every handler returns as soon as its pipeline is assembled and the event loop moves on until the database answers
+@RestController
+@RequestMapping("/api")
+public class EmployeeRestController {
+
+    private EmployeeService employeeService;
+    private boolean requireIfMatch;
+
+
+
+    @Autowired
+    public EmployeeRestController(EmployeeService theEmployeeService,
+            @Value("${employee.require-if-match:false}") boolean theRequireIfMatch){
+        employeeService=theEmployeeService;
+        requireIfMatch=theRequireIfMatch;
+    }
+
+    // a JSON array written element by element, or one employee per line for Accept: application/x-ndjson.
+    // the socket drives the demand: a slow client stops Netty asking for elements, that stops the driver reading rows,
+    // so neither the list nor the result set is ever held in memory
+    @GetMapping(value="/employees",produces={MediaType.APPLICATION_JSON_VALUE,MediaType.APPLICATION_NDJSON_VALUE})
+    public Flux<Employee> findAll(){
+        return employeeService.findAll();
+    }
+
+    // the ETag is the row's @Version, the same value If-Match takes on PUT and PATCH
+    @GetMapping("/employees/{employeeId}")
+    public Mono<ResponseEntity<Employee>> getEmployee(@PathVariable int employeeId,ServerWebExchange exchange){
+        return employeeService.findById(employeeId)
+                .switchIfEmpty(Mono.error(() -> new RuntimeException("Employee id not found - "+employeeId)))
+                .map(theEmployee -> {
+                    String eTag=eTag(employeeService.getVersion(theEmployee));
+                    if(exchange.checkNotModified(eTag)){
+                        return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).build();
+                    }
+                    return ResponseEntity.ok().eTag(eTag).body(theEmployee);
+                });
+    }
+
+
+    @PostMapping("/employees")
+    public Mono<ResponseEntity<Employee>> addEmployee(@RequestBody Employee theEmployee){
+        // in case id or version is sent in JSON reset them, this is always an insert
+        theEmployee.setId(0);
+        theEmployee.setVersion(0);
+        return employeeService.save(theEmployee).map(this::withETag);
+    }
+
+
+    // If-Match with the ETag from a GET makes this a compare-and-set: 412 when someone else wrote the row in between.
+    // without it the last write wins, unless employee.require-if-match is on (428)
+    @PutMapping("/employees")
+    public Mono<ResponseEntity<Employee>> updateEmployee(@RequestBody Employee theEmployee,
+            @RequestHeader(value=HttpHeaders.IF_MATCH,required=false) String ifMatch){
+        if(theEmployee.getId()==0){
+            // nothing to match against, this is a create
+            theEmployee.setVersion(0);
+            return employeeService.save(theEmployee).map(this::withETag);
+        }
+        return employeeService.update(theEmployee,expectedVersion(theEmployee.getId(),ifMatch))
+                .map(this::withETag)
+                .defaultIfEmpty(ResponseEntity.status(HttpStatus.NOT_FOUND).build());
+    }
+
+    // application/merge-patch+json (or plain JSON): one UPDATE of the members sent, then the row is read back for the body.
+    // Prefer: return=minimal skips the read back and answers 204. If-Match works as on PUT
+    @PatchMapping("/employees/{employeeId}")
+    public Mono<ResponseEntity<Employee>> patchEmployee(@PathVariable int employeeId,@RequestBody Map<String,Object>patchPayload,
+            @RequestHeader(value="Prefer",required=false) String prefer,
+            @RequestHeader(value=HttpHeaders.IF_MATCH,required=false) String ifMatch){
+        EmployeeMergePatch patch=EmployeeMergePatch.of(patchPayload);
+        Integer expectedVersion=expectedVersion(employeeId,ifMatch);
+
+        return employeeService.patch(employeeId,patch,expectedVersion)
+                .flatMap(found -> {
+                    if(!found){
+                        return Mono.error(new RuntimeException("Employee id not found"));
+                    }
+                    if("return=minimal".equals(prefer)){
+                        ResponseEntity.HeadersBuilder<?> noContent=ResponseEntity.noContent().header("Preference-Applied",prefer);
+                        if(expectedVersion!=null){
+                            // the UPDATE only matched the expected version, so it left the row one past it
+                            int version=patch.isEmpty() ? expectedVersion : expectedVersion+1;
+                            noContent.eTag(eTag(employeeId+"."+version));
+                        }
+                        return Mono.just(noContent.<Employee>build());
+                    }
+                    return employeeService.findById(employeeId).map(this::withETag);
+                });
+    }
+
+    // a single DELETE, the affected row count says whether the id existed
+    @DeleteMapping("/employees/{employeeId}")
+    public Mono<ResponseEntity<String>> deleteEmployee(@PathVariable int employeeId){
+        return employeeService.deleteById(employeeId)
+                .map(deleted -> deleted
+                        ? ResponseEntity.ok("Deleted employee id of "+employeeId)
+                        : ResponseEntity.status(HttpStatus.NOT_FOUND).body("Employee id not found - "+employeeId));
+    }
+
+    private ResponseEntity<Employee> withETag(Employee theEmployee){
+        return ResponseEntity.ok().eTag(eTag(employeeService.getVersion(theEmployee))).body(theEmployee);
+    }
+
+    private String eTag(String version){
+        return "\""+version+"\"";
+    }
+
+    // the @Version If-Match asks for, null when there is nothing to check. a tag that isnt a current one for this
+    // employee (weak, another id, garbage) can never match, so it fails like a stale one
+    private Integer expectedVersion(int employeeId,String ifMatch){
+        if(ifMatch==null){
+            if(requireIfMatch){
+                throw new ResponseStatusException(HttpStatus.PRECONDITION_REQUIRED,"If-Match is required to change employee "+employeeId);
+            }
+            return null;
+        }
+        String tag=ifMatch.trim();
+        if(tag.equals("*")){
+            return null;
+        }
+        Integer version=null;
+        if(tag.length()>1 && tag.startsWith("\"") && tag.endsWith("\"")){
+            version=employeeService.parseVersion(employeeId,tag.substring(1,tag.length()-1));
+        }
+        if(version==null){
+            throw new OptimisticLockingFailureException("If-Match "+tag+" is not a version of employee "+employeeId);
+        }
+        return version;
+    }
+
+    // stale If-Match, or a concurrent writer caught by the @Version check in the UPDATE itself
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<String> handleConflict(OptimisticLockingFailureException exc){
+        return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).body(exc.getMessage());
+    }
+
+    // a PATCH body EmployeeMergePatch cant apply is the client's mistake, 400 instead of a 500
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<String> handleBadRequest(IllegalArgumentException exc){
+        return ResponseEntity.badRequest().body(exc.getMessage());
+    }
+
+
+}
@@ -0,0 +1,34 @@
+package com.paras.springboot.cruddemo.service;
+
+import com.paras.springboot.cruddemo.entity.Employee;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+public interface EmployeeService {
+    // ordered by id, rows come off the database only as fast as the subscriber takes them
+    Flux<Employee>findAll();
+
+    // empty when there is no employee with that id
+    Mono<Employee> findById(int theId);
+
+    Mono<Employee> save(Employee theEmployee);
+
+    // the methods taking an expectedVersion only write a row still at that @Version (null skips the check)
+    // and fail with OptimisticLockingFailureException otherwise
+
+    // empty when there is no employee with that id
+    Mono<Employee> update(Employee theEmployee,Integer expectedVersion);
+
+    // false when there is no employee with that id
+    Mono<Boolean> patch(int theId,EmployeeMergePatch thePatch,Integer expectedVersion);
+
+    // false when there was no employee with that id
+    Mono<Boolean> deleteById(int theId);
+
+    // item ETag value, "id.version"
+    String getVersion(Employee theEmployee);
+
+    // the @Version an item ETag value stands for, null when it isnt one for this id
+    Integer parseVersion(int theId,String theVersion);
+}
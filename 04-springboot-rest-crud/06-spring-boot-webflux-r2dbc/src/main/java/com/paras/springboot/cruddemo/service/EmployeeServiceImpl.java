@@ -0,0 +1,105 @@
+package com.paras.springboot.cruddemo.service;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.paras.springboot.cruddemo.DAO.EmployeeRepository;
+import com.paras.springboot.cruddemo.entity.Employee;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@Service
+public class EmployeeServiceImpl implements EmployeeService{
+    private EmployeeRepository employeeRepository;
+
+    @Autowired
+    public EmployeeServiceImpl(EmployeeRepository theEmployeeRepository){
+        employeeRepository=theEmployeeRepository;
+    }
+
+    @Override
+    public Flux<Employee> findAll() {
+        return employeeRepository.streamAll();
+    }
+
+    @Override
+    public Mono<Employee> findById(int theId) {
+        return employeeRepository.findById(theId);
+    }
+
+    @Override
+    public Mono<Employee> save(Employee theEmployee) {
+        return employeeRepository.save(theEmployee);
+    }
+
+    // one version-checked UPDATE of all the columns, then the row is read back in the same transaction
+    @Override
+    @Transactional
+    public Mono<Employee> update(Employee theEmployee,Integer expectedVersion) {
+        Map<String,Object> changes=new LinkedHashMap<>();
+        changes.put("firstName",theEmployee.getFirstName());
+        changes.put("lastName",theEmployee.getLastName());
+        changes.put("email",theEmployee.getEmail());
+        int theId=theEmployee.getId();
+        return employeeRepository.updateFields(theId,changes,expectedVersion)
+                .flatMap(rows -> rows>0 ? employeeRepository.findById(theId) : missingOrConflict(theId,expectedVersion));
+    }
+
+    @Override
+    @Transactional
+    public Mono<Boolean> patch(int theId,EmployeeMergePatch thePatch,Integer expectedVersion) {
+        if(thePatch.isEmpty()){
+            // nothing to write, only whether the employee exists (at the expected version)
+            return employeeRepository.findById(theId)
+                    .flatMap(current -> expectedVersion==null || current.getVersion()==expectedVersion
+                            ? Mono.just(true) : Mono.<Boolean>error(conflict(theId,expectedVersion)))
+                    .defaultIfEmpty(false);
+        }
+        return employeeRepository.updateFields(theId,thePatch.getChanges(),expectedVersion)
+                .flatMap(rows -> rows>0 ? Mono.just(true) : this.<Boolean>missingOrConflict(theId,expectedVersion))
+                .defaultIfEmpty(false);
+    }
+
+    @Override
+    public Mono<Boolean> deleteById(int theId) {
+        return employeeRepository.deleteEmployeeById(theId).map(rows -> rows>0);
+    }
+
+    @Override
+    public String getVersion(Employee theEmployee) {
+        return theEmployee.getId()+"."+theEmployee.getVersion();
+    }
+
+    @Override
+    public Integer parseVersion(int theId,String theVersion) {
+        String prefix=theId+".";
+        if(!theVersion.startsWith(prefix)){
+            return null;
+        }
+        try{
+            return Integer.valueOf(theVersion.substring(prefix.length()));
+        }catch(NumberFormatException exc){
+            return null;
+        }
+    }
+
+    // an UPDATE that touched nothing: empty when the id doesnt exist, a conflict when it exists at another version
+    private <T> Mono<T> missingOrConflict(int theId,Integer expectedVersion){
+        if(expectedVersion==null){
+            return Mono.empty();
+        }
+        return employeeRepository.existsById(theId)
+                .flatMap(exists -> exists ? Mono.error(conflict(theId,expectedVersion)) : Mono.empty());
+    }
+
+    private OptimisticLockingFailureException conflict(int theId,Integer expectedVersion){
+        return new OptimisticLockingFailureException("Employee "+theId+" has changed since version "+expectedVersion);
+    }
+
+}
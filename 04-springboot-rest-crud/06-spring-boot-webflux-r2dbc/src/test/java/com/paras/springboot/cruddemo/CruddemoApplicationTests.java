@@ -0,0 +1,15 @@
+package com.paras.springboot.cruddemo;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class CruddemoApplicationTests {
+
+	@Test
+	void contextLoads() {
+	}
+
+}
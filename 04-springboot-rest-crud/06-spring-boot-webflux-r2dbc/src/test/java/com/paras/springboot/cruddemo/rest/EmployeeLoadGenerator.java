@@ -0,0 +1,132 @@
+package com.paras.springboot.cruddemo.rest;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// the Spring Data JPA module's generator, plus the server's resident memory when its pid is given (linux only).
+// start each edition against the same database, then:
+//   mvn test-compile exec:exec -Dexec.executable=java -Dexec.classpathScope=test
+//       -Dexec.args="-cp %classpath com.paras.springboot.cruddemo.rest.EmployeeLoadGenerator http://localhost:8080/api/employees 1000 30 5 <pid>"
+public class EmployeeLoadGenerator {
+
+    public static void main(String[] args) throws Exception {
+        URI target=URI.create(args.length>0 ? args[0] : "http://localhost:8080/api/employees");
+        int clients=args.length>1 ? Integer.parseInt(args[1]) : 1000;
+        int seconds=args.length>2 ? Integer.parseInt(args[2]) : 30;
+        int warmupSeconds=args.length>3 ? Integer.parseInt(args[3]) : 5;
+        Path serverStatus=args.length>4 ? Path.of("/proc",args[4],"status") : null;
+
+        HttpClient http=HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(10))
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build();
+        HttpRequest request=HttpRequest.newBuilder(target).timeout(Duration.ofSeconds(60)).GET().build();
+
+        long measureFrom=System.nanoTime()+TimeUnit.SECONDS.toNanos(warmupSeconds);
+        long deadline=measureFrom+TimeUnit.SECONDS.toNanos(seconds);
+        AtomicLong errors=new AtomicLong();
+        List<long[]> latencies=new ArrayList<>(clients);
+
+        System.out.println(clients+" clients -> "+target+" for "+seconds+"s after "+warmupSeconds+"s warmup");
+        long idleRss=serverStatus!=null ? residentKb(serverStatus) : 0;
+        AtomicLong peakRss=new AtomicLong();
+        try(ExecutorService pool=Executors.newVirtualThreadPerTaskExecutor()){
+            if(serverStatus!=null){
+                pool.submit(() -> {
+                    while(System.nanoTime()<deadline){
+                        if(System.nanoTime()>=measureFrom){
+                            peakRss.accumulateAndGet(residentKb(serverStatus),Math::max);
+                        }
+                        Thread.sleep(250);
+                    }
+                    return null;
+                });
+            }
+            for(int i=0;i<clients;i++){
+                LatencyLog log=new LatencyLog();
+                pool.submit(() -> {
+                    while(System.nanoTime()<deadline){
+                        long start=System.nanoTime();
+                        boolean ok;
+                        try{
+                            ok=http.send(request,HttpResponse.BodyHandlers.discarding()).statusCode()<400;
+                        }catch(Exception exc){
+                            ok=false;
+                        }
+                        if(start<measureFrom){
+                            continue;
+                        }
+                        if(ok){
+                            log.add(System.nanoTime()-start);
+                        }else{
+                            errors.incrementAndGet();
+                        }
+                    }
+                    synchronized(latencies){
+                        latencies.add(log.toArray());
+                    }
+                    return null;
+                });
+            }
+        }
+
+        long[] all=latencies.stream().flatMapToLong(Arrays::stream).sorted().toArray();
+        System.out.printf("requests   %d ok, %d failed%n",all.length,errors.get());
+        System.out.printf("throughput %.1f req/s%n",all.length/(double)seconds);
+        if(all.length>0){
+            System.out.printf("latency    p50 %.1f ms, p99 %.1f ms, p99.9 %.1f ms, max %.1f ms%n",
+                    millis(all,0.50),millis(all,0.99),millis(all,0.999),all[all.length-1]/1e6);
+        }
+        if(serverStatus!=null){
+            System.out.printf("server rss %d MB idle, %d MB peak, %.1f KB per client%n",
+                    idleRss/1024,peakRss.get()/1024,(peakRss.get()-idleRss)/(double)clients);
+        }
+    }
+
+    // VmRSS of the server process, in KB
+    private static long residentKb(Path status) throws IOException {
+        for(String line:Files.readAllLines(status)){
+            if(line.startsWith("VmRSS:")){
+                return Long.parseLong(line.replaceAll("[^0-9]",""));
+            }
+        }
+        return 0;
+    }
+
+    private static double millis(long[] sorted,double quantile){
+        int index=(int)Math.ceil(quantile*sorted.length)-1;
+        return sorted[Math.max(index,0)]/1e6;
+    }
+
+    // per-client buffer, so recording a sample never contends with the other clients
+    private static class LatencyLog {
+        private long[] samples=new long[1024];
+        private int size;
+
+        void add(long nanos){
+            if(size==samples.length){
+                samples=Arrays.copyOf(samples,size*2);
+            }
+            samples[size++]=nanos;
+        }
+
+        long[] toArray(){
+            return Arrays.copyOf(samples,size);
+        }
+    }
+
+}
@@ -0,0 +1,189 @@
+package com.paras.springboot.cruddemo.rest;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.reactive.server.EntityExchangeResult;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import com.paras.springboot.cruddemo.entity.Employee;
+
+// the HTTP contract against the in-memory database of the test profile. If-Match is required here, so every write
+// below either sends one or is the 428 case. each test works on employees it creates itself
+@SpringBootTest(properties="employee.require-if-match=true")
+@AutoConfigureWebTestClient
+@ActiveProfiles("test")
+class EmployeeRestControllerTests {
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Test
+    void getAnswers304ForTheCurrentETag() {
+        Created employee=create("Leslie");
+
+        String eTag=webTestClient.get().uri("/api/employees/{id}",employee.id())
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(Employee.class).value(body -> assertEquals("Leslie",body.getFirstName()))
+                .returnResult().getResponseHeaders().getETag();
+        assertEquals(employee.eTag(),eTag);
+
+        webTestClient.get().uri("/api/employees/{id}",employee.id())
+                .header(HttpHeaders.IF_NONE_MATCH,eTag)
+                .exchange()
+                .expectStatus().isNotModified()
+                .expectHeader().valueEquals(HttpHeaders.ETAG,eTag)
+                .expectBody().isEmpty();
+    }
+
+    @Test
+    void writeWithAStaleIfMatchIs412() {
+        Created employee=create("Emma");
+        String newETag=patch(employee.id(),employee.eTag(),"{\"email\":\"emma@example.com\"}")
+                .expectStatus().isOk()
+                .returnResult(Employee.class).getResponseHeaders().getETag();
+        assertTrue(!employee.eTag().equals(newETag),"a write moves the ETag");
+
+        // both writers started from the first version, the second one loses
+        patch(employee.id(),employee.eTag(),"{\"email\":\"late@example.com\"}")
+                .expectStatus().isEqualTo(HttpStatus.PRECONDITION_FAILED);
+        webTestClient.put().uri("/api/employees")
+                .header(HttpHeaders.IF_MATCH,employee.eTag())
+                .bodyValue(Map.of("id",employee.id(),"firstName","Emma","lastName","Late","email","late@example.com"))
+                .exchange()
+                .expectStatus().isEqualTo(HttpStatus.PRECONDITION_FAILED);
+
+        webTestClient.get().uri("/api/employees/{id}",employee.id())
+                .exchange()
+                .expectBody(Employee.class).value(body -> assertEquals("emma@example.com",body.getEmail()));
+    }
+
+    @Test
+    void writeWithoutIfMatchIs428() {
+        Created employee=create("Avani");
+
+        patch(employee.id(),null,"{\"email\":\"avani@example.com\"}")
+                .expectStatus().isEqualTo(HttpStatus.PRECONDITION_REQUIRED);
+        webTestClient.put().uri("/api/employees")
+                .bodyValue(Map.of("id",employee.id(),"firstName","Avani","lastName","Test","email","avani@example.com"))
+                .exchange()
+                .expectStatus().isEqualTo(HttpStatus.PRECONDITION_REQUIRED);
+    }
+
+    @Test
+    void putAndDeleteOfAnUnknownIdAre404() {
+        webTestClient.put().uri("/api/employees")
+                .header(HttpHeaders.IF_MATCH,"*")
+                .bodyValue(Map.of("id",999999,"firstName","No","lastName","Body","email","nobody@example.com"))
+                .exchange()
+                .expectStatus().isNotFound();
+        webTestClient.delete().uri("/api/employees/{id}",999999)
+                .exchange()
+                .expectStatus().isNotFound();
+
+        Created employee=create("Yuri");
+        webTestClient.delete().uri("/api/employees/{id}",employee.id())
+                .exchange()
+                .expectStatus().isOk();
+        webTestClient.delete().uri("/api/employees/{id}",employee.id())
+                .exchange()
+                .expectStatus().isNotFound();
+    }
+
+    @Test
+    void patchWithReturnMinimalIs204WithTheNewETag() {
+        Created employee=create("Juan");
+
+        webTestClient.patch().uri("/api/employees/{id}",employee.id())
+                .header(HttpHeaders.IF_MATCH,employee.eTag())
+                .header("Prefer","return=minimal")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("{\"lastName\":\"Minimal\"}")
+                .exchange()
+                .expectStatus().isNoContent()
+                .expectHeader().valueEquals("Preference-Applied","return=minimal")
+                .expectHeader().valueEquals(HttpHeaders.ETAG,"\""+employee.id()+"."+(employee.version()+1)+"\"")
+                .expectBody().isEmpty();
+
+        webTestClient.get().uri("/api/employees/{id}",employee.id())
+                .exchange()
+                .expectHeader().valueEquals(HttpHeaders.ETAG,"\""+employee.id()+"."+(employee.version()+1)+"\"")
+                .expectBody(Employee.class).value(body -> assertEquals("Minimal",body.getLastName()));
+    }
+
+    @Test
+    void patchThatCantBeAppliedIs400() {
+        Created employee=create("Bad");
+
+        patch(employee.id(),employee.eTag(),"{\"id\":1}").expectStatus().isBadRequest();
+        patch(employee.id(),employee.eTag(),"{\"salary\":1}").expectStatus().isBadRequest();
+        patch(employee.id(),employee.eTag(),"{\"email\":5}").expectStatus().isBadRequest();
+    }
+
+    @Test
+    void listIsOneObjectPerLineForNdjsonAndAnArrayForJson() {
+        create("Stream");
+
+        String array=webTestClient.get().uri("/api/employees")
+                .accept(MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_JSON)
+                .expectBody(String.class).returnResult().getResponseBody();
+        assertNotNull(array);
+        assertTrue(array.startsWith("[{") && array.endsWith("}]"),array);
+
+        String lines=webTestClient.get().uri("/api/employees")
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON)
+                .expectBody(String.class).returnResult().getResponseBody();
+        assertNotNull(lines);
+        String[] rows=lines.strip().split("\n");
+        for(String row:rows){
+            assertTrue(row.startsWith("{") && row.endsWith("}"),row);
+        }
+        // the same rows either way
+        assertEquals(String.join(",",rows),array.substring(1,array.length()-1));
+    }
+
+    private Created create(String firstName) {
+        EntityExchangeResult<Employee> result=webTestClient.post().uri("/api/employees")
+                .bodyValue(Map.of("firstName",firstName,"lastName","Test","email",firstName.toLowerCase()+"@example.com"))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(Employee.class).returnResult();
+        String eTag=result.getResponseHeaders().getETag();
+        int id=result.getResponseBody().getId();
+        assertNotNull(eTag);
+        assertTrue(eTag.startsWith("\""+id+"."),eTag);
+        int version=Integer.parseInt(eTag.substring(eTag.indexOf('.')+1,eTag.length()-1));
+        return new Created(id,version,eTag);
+    }
+
+    private WebTestClient.ResponseSpec patch(int id,String ifMatch,String body) {
+        WebTestClient.RequestBodySpec request=webTestClient.patch().uri("/api/employees/{id}",id)
+                .contentType(MediaType.APPLICATION_JSON);
+        if(ifMatch!=null){
+            request.header(HttpHeaders.IF_MATCH,ifMatch);
+        }
+        return request.bodyValue(body).exchange();
+    }
+
+    private record Created(int id,int version,String eTag) {
+    }
+
+}
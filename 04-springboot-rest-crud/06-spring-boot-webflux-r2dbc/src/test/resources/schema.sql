@@ -0,0 +1,8 @@
+CREATE TABLE IF NOT EXISTS employee (
+  id int NOT NULL AUTO_INCREMENT,
+  first_name varchar(45) DEFAULT NULL,
+  last_name varchar(45) DEFAULT NULL,
+  email varchar(45) DEFAULT NULL,
+  version int NOT NULL DEFAULT 0,
+  PRIMARY KEY (id)
+);
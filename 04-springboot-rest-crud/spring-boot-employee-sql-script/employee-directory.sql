@@ -12,6 +12,7 @@ CREATE TABLE `employee` (
   `first_name` varchar(45) DEFAULT NULL,
   `last_name` varchar(45) DEFAULT NULL,
   `email` varchar(45) DEFAULT NULL,
+  `version` int NOT NULL DEFAULT 0,
   PRIMARY KEY (`id`)
 ) ENGINE=InnoDB AUTO_INCREMENT=1 DEFAULT CHARSET=latin1;
 
@@ -19,10 +20,14 @@ CREATE TABLE `employee` (
 -- Data for table `employee`
 --
 
-INSERT INTO `employee` VALUES 
+INSERT INTO `employee` (`id`,`first_name`,`last_name`,`email`) VALUES 
 	(1,'Leslie','Andrews','leslie@luv2code.com'),
 	(2,'Emma','Baumgarten','emma@luv2code.com'),
 	(3,'Avani','Gupta','avani@luv2code.com'),
 	(4,'Yuri','Petrov','yuri@luv2code.com'),
 	(5,'Juan','Vega','juan@luv2code.com');
 
+--
+-- Existing databases: optimistic-lock column used by 04-spring-boot-withSpring-data-jpa
+--
+-- ALTER TABLE `employee` ADD COLUMN `version` int NOT NULL DEFAULT 0;